@@ -0,0 +1,172 @@
+package benchmarks;
+
+import benchresolvers.*;
+import graphql.GraphQL;
+import graphql.language.InputValueDefinition;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.TypeResolver;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.WiringFactory;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+
+// ReflectionWiringFactory lives in the default package, which JMH does not allow for benchmarks
+// and which named packages cannot import, so it is reached reflectively, during setup only.
+final class BenchSchema {
+    static final String SCHEMA = "" +
+            "    schema {                                                          \n" +
+            "        query: BenchQuery                                             \n" +
+            "    }                                                                 \n" +
+            "                                                                      \n" +
+            "    type BenchQuery {                                                 \n" +
+            "        scalars(flag: Boolean, count: Int, ratio: Float, text: String): String \n" +
+            "        enumArg(color: BenchColor): String                            \n" +
+            "        inputArg(filter: BenchFilter): String                         \n" +
+            "        item: BenchItem                                               \n" +
+            "        node: BenchNode                                               \n" +
+            "        result: BenchResult                                           \n" +
+            "    }                                                                 \n" +
+            "                                                                      \n" +
+            "    enum BenchColor {                                                 \n" +
+            "        RED                                                           \n" +
+            "        GREEN                                                         \n" +
+            "        BLUE                                                          \n" +
+            "    }                                                                 \n" +
+            "                                                                      \n" +
+            "    input BenchFilter {                                               \n" +
+            "        text: String                                                  \n" +
+            "        limit: Int                                                    \n" +
+            "    }                                                                 \n" +
+            "                                                                      \n" +
+            "    interface BenchNode {                                             \n" +
+            "        id: Int                                                       \n" +
+            "    }                                                                 \n" +
+            "                                                                      \n" +
+            "    union BenchResult = BenchItem | BenchOther                        \n" +
+            "                                                                      \n" +
+            "    type BenchItem implements BenchNode {                             \n" +
+            "        id: Int                                                       \n" +
+            "        name: String                                                  \n" +
+            "        active: Boolean                                               \n" +
+            "    }                                                                 \n" +
+            "                                                                      \n" +
+            "    type BenchOther implements BenchNode {                            \n" +
+            "        id: Int                                                       \n" +
+            "    }                                                                 \n";
+
+    static final Collection<Class<?>> CLASSES = Arrays.asList(
+            BenchQuery.class, BenchColor.class, BenchFilter.class, BenchNode.class,
+            BenchResult.class, BenchItem.class, BenchOther.class);
+
+    private static final Class<?> FACTORY_CLASS;
+
+    static {
+        try {
+            FACTORY_CLASS = Class.forName("ReflectionWiringFactory");
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private BenchSchema() {
+    }
+
+    static TypeDefinitionRegistry parse() {
+        return new SchemaParser().parse(SCHEMA);
+    }
+
+    static TypeDefinitionRegistry parseHotelSchema() {
+        try (Reader reader = new InputStreamReader(
+                BenchSchema.class.getResourceAsStream("/schema.graphqls"), StandardCharsets.UTF_8)) {
+            return new SchemaParser().parse(reader);
+        } catch (Exception e) {
+            throw new RuntimeException("Unable to read hotel schema", e);
+        }
+    }
+
+    static Constructor<?> factoryConstructor(Class<?> source) {
+        try {
+            return FACTORY_CLASS.getConstructor(TypeDefinitionRegistry.class, source);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static WiringFactory wire(TypeDefinitionRegistry registry, Collection<Class<?>> classes) {
+        return checked((WiringFactory) newInstance(factoryConstructor(Collection.class), registry, classes));
+    }
+
+    static WiringFactory wire(TypeDefinitionRegistry registry, String packageName) {
+        return checked((WiringFactory) newInstance(factoryConstructor(String.class), registry, packageName));
+    }
+
+    static DataFetcher getterFetcher(WiringFactory factory, String typeName, String fieldName, Method getter) {
+        return (DataFetcher) invoke(factory, "buildDataFetcherFromGetter",
+                new Class<?>[]{String.class, String.class, Method.class},
+                typeName, fieldName, getter);
+    }
+
+    static DataFetcher methodFetcher(WiringFactory factory, String typeName, String fieldName, Method method,
+                                     List<InputValueDefinition> fieldParams) {
+        return (DataFetcher) invoke(factory, "buildDataFetcherFromMethod",
+                new Class<?>[]{String.class, String.class, Method.class, List.class},
+                typeName, fieldName, method, fieldParams);
+    }
+
+    static TypeResolver typeResolver(WiringFactory factory, String interfaceName) {
+        return (TypeResolver) invoke(factory, "buildTypeResolver", new Class<?>[]{String.class}, interfaceName);
+    }
+
+    static GraphQLSchema schema(TypeDefinitionRegistry registry, WiringFactory factory) {
+        RuntimeWiring runtimeWiring = newRuntimeWiring().wiringFactory(factory).build();
+        return new SchemaGenerator().makeExecutableSchema(registry, runtimeWiring);
+    }
+
+    static GraphQL graphQL(TypeDefinitionRegistry registry, WiringFactory factory) {
+        return GraphQL.newGraphQL(schema(registry, factory)).build();
+    }
+
+    static Object newInstance(Constructor<?> constructor, Object... args) {
+        try {
+            return constructor.newInstance(args);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getTargetException());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object invoke(Object target, String name, Class<?>[] types, Object... args) {
+        try {
+            Method method = FACTORY_CLASS.getDeclaredMethod(name, types);
+            method.setAccessible(true);
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getTargetException());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static WiringFactory checked(WiringFactory factory) {
+        List<?> errors = (List<?>) invoke(factory, "getErrors", new Class<?>[0]);
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Wiring errors: " + errors);
+        }
+        return factory;
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import benchresolvers.BenchItem;
+import graphql.Scalars;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.PropertyDataFetcher;
+import graphql.schema.idl.WiringFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.DataFetchingEnvironmentBuilder.newDataFetchingEnvironment;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetterFetcherBenchmark {
+    private DataFetcher reflectionGetter;
+    private DataFetcher propertyDataFetcher;
+    private DataFetchingEnvironment env;
+
+    @Setup
+    public void setup() throws Exception {
+        WiringFactory factory = BenchSchema.wire(BenchSchema.parse(), BenchSchema.CLASSES);
+        reflectionGetter = BenchSchema.getterFetcher(factory,
+                "BenchItem", "name", BenchItem.class.getMethod("getName"));
+        propertyDataFetcher = new PropertyDataFetcher<>("name");
+        env = newDataFetchingEnvironment()
+                .source(new BenchItem(1))
+                .fieldType(Scalars.GraphQLString)
+                .build();
+    }
+
+    @Benchmark
+    public Object reflectionGetter() throws Exception {
+        return reflectionGetter.get(env);
+    }
+
+    @Benchmark
+    public Object propertyDataFetcher() throws Exception {
+        return propertyDataFetcher.get(env);
+    }
+}
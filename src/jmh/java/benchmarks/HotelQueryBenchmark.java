@@ -0,0 +1,47 @@
+package benchmarks;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import hotel.HotelData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotelQueryBenchmark {
+    @Param({
+            "{ hotel(id: 1) { id, name } }",
+            "{ hotel(id: 1) { id, name, rooms { id, name } } }",
+            "{ hotel(id: 1) { id, name, rooms { id, name, facilities { id, name } } } }",
+    })
+    public String query;
+
+    private GraphQL graphQL;
+    private ExecutionInput input;
+
+    @Setup
+    public void setup() {
+        TypeDefinitionRegistry registry = BenchSchema.parseHotelSchema();
+        graphQL = BenchSchema.graphQL(registry, BenchSchema.wire(registry, "hotel"));
+        input = ExecutionInput.newExecutionInput()
+                .query(query)
+                .context(HotelData.generate(10, 3, 3, 42))
+                .build();
+        ExecutionResult result = graphQL.execute(input);
+        if (!result.getErrors().isEmpty()) {
+            throw new IllegalStateException("Query failed: " + result.getErrors());
+        }
+    }
+
+    @Benchmark
+    public ExecutionResult execute() {
+        return graphQL.execute(input);
+    }
+}
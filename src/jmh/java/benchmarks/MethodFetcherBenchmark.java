@@ -0,0 +1,92 @@
+package benchmarks;
+
+import benchresolvers.BenchQuery;
+import graphql.language.FieldDefinition;
+import graphql.language.ObjectTypeDefinition;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.WiringFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.DataFetchingEnvironmentBuilder.newDataFetchingEnvironment;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodFetcherBenchmark {
+    private DataFetcher scalarsFetcher;
+    private DataFetcher enumFetcher;
+    private DataFetcher inputFetcher;
+    private DataFetchingEnvironment scalarsEnv;
+    private DataFetchingEnvironment enumEnv;
+    private DataFetchingEnvironment inputEnv;
+
+    @Setup
+    public void setup() {
+        TypeDefinitionRegistry registry = BenchSchema.parse();
+        WiringFactory factory = BenchSchema.wire(registry, BenchSchema.CLASSES);
+
+        scalarsFetcher = fetcher(factory, registry, "scalars");
+        enumFetcher = fetcher(factory, registry, "enumArg");
+        inputFetcher = fetcher(factory, registry, "inputArg");
+
+        Map<String, Object> scalars = new HashMap<>();
+        scalars.put("flag", true);
+        scalars.put("count", 42);
+        scalars.put("ratio", 0.5);
+        scalars.put("text", "text");
+        scalarsEnv = newDataFetchingEnvironment().arguments(scalars).build();
+
+        enumEnv = newDataFetchingEnvironment()
+                .arguments(new HashMap<>(Collections.singletonMap("color", "GREEN")))
+                .build();
+
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("text", "text");
+        filter.put("limit", 10);
+        inputEnv = newDataFetchingEnvironment()
+                .arguments(new HashMap<>(Collections.singletonMap("filter", filter)))
+                .build();
+    }
+
+    private static DataFetcher fetcher(WiringFactory factory, TypeDefinitionRegistry registry, String fieldName) {
+        ObjectTypeDefinition queryDef = (ObjectTypeDefinition) registry.getType("BenchQuery").get();
+        FieldDefinition fieldDef = queryDef.getFieldDefinitions().stream()
+                .filter(f -> f.getName().equals(fieldName))
+                .findFirst()
+                .get();
+        String methodName = "fetch" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
+        Method method = Arrays.stream(BenchQuery.class.getMethods())
+                .filter(m -> m.getName().equals(methodName))
+                .findFirst()
+                .get();
+        return BenchSchema.methodFetcher(factory, "BenchQuery", fieldName, method,
+                fieldDef.getInputValueDefinitions());
+    }
+
+    @Benchmark
+    public Object scalarArguments() throws Exception {
+        return scalarsFetcher.get(scalarsEnv);
+    }
+
+    @Benchmark
+    public Object enumArgument() throws Exception {
+        return enumFetcher.get(enumEnv);
+    }
+
+    @Benchmark
+    public Object inputObjectArgument() throws Exception {
+        return inputFetcher.get(inputEnv);
+    }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import benchresolvers.BenchItem;
+import benchresolvers.BenchOther;
+import graphql.TypeResolutionEnvironment;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.TypeResolver;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.WiringFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeResolverBenchmark {
+    private TypeResolver interfaceResolver;
+    private TypeResolver unionResolver;
+    private TypeResolutionEnvironment interfaceEnv;
+    private TypeResolutionEnvironment unionEnv;
+
+    @Setup
+    public void setup() {
+        TypeDefinitionRegistry registry = BenchSchema.parse();
+        WiringFactory factory = BenchSchema.wire(registry, BenchSchema.CLASSES);
+        GraphQLSchema schema = BenchSchema.schema(registry, factory);
+
+        interfaceResolver = BenchSchema.typeResolver(factory, "BenchNode");
+        unionResolver = BenchSchema.typeResolver(factory, "BenchResult");
+        interfaceEnv = new TypeResolutionEnvironment(new BenchOther(1), Collections.emptyMap(), null,
+                schema.getType("BenchNode"), schema, null);
+        unionEnv = new TypeResolutionEnvironment(new BenchItem(1), Collections.emptyMap(), null,
+                schema.getType("BenchResult"), schema, null);
+    }
+
+    @Benchmark
+    public Object interfaceResolution() {
+        return interfaceResolver.getType(interfaceEnv);
+    }
+
+    @Benchmark
+    public Object unionResolution() {
+        return unionResolver.getType(unionEnv);
+    }
+}
@@ -0,0 +1,107 @@
+package benchmarks;
+
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WiringBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int typeCount;
+
+    private TypeDefinitionRegistry registry;
+    private Collection<Class<?>> classes;
+    private Constructor<?> factoryConstructor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Path dir = Files.createTempDirectory("wiring-benchmark");
+        List<File> sources = new ArrayList<>();
+        StringBuilder schema = new StringBuilder("schema { query: GeneratedQuery }\n");
+
+        schema.append("type GeneratedQuery { first: T0 }\n");
+        sources.add(write(dir, "GeneratedQuery", "" +
+                "public class GeneratedQuery {\n" +
+                "    public static T0 fetchFirst(graphql.schema.DataFetchingEnvironment env) { return new T0(); }\n" +
+                "}\n"));
+
+        for (int i = 0; i < typeCount; i++) {
+            String next = i + 1 < typeCount ? "T" + (i + 1) : "T0";
+            schema.append(String.format("type T%d { id: Int! name: String active: Boolean next: %s }\n", i, next));
+            sources.add(write(dir, "T" + i, String.format("" +
+                    "public class T%d {\n" +
+                    "    public int getId() { return %d; }\n" +
+                    "    public String getName() { return \"T%d\"; }\n" +
+                    "    public boolean isActive() { return true; }\n" +
+                    "    public %s getNext() { return new %s(); }\n" +
+                    "}\n", i, i, i, next, next)));
+        }
+
+        compile(dir, sources);
+
+        URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()},
+                WiringBenchmark.class.getClassLoader());
+        classes = new ArrayList<>();
+        classes.add(loader.loadClass("GeneratedQuery"));
+        for (int i = 0; i < typeCount; i++) {
+            classes.add(loader.loadClass("T" + i));
+        }
+        registry = new SchemaParser().parse(schema.toString());
+        BenchSchema.wire(registry, classes);
+        factoryConstructor = BenchSchema.factoryConstructor(Collection.class);
+    }
+
+    @Benchmark
+    public Object wire() {
+        return BenchSchema.newInstance(factoryConstructor, registry, classes);
+    }
+
+    private static File write(Path dir, String className, String source) throws IOException {
+        Path file = dir.resolve(className + ".java");
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+        return file.toFile();
+    }
+
+    private static void compile(Path dir, List<File> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("WiringBenchmark needs a JDK to generate its schema classes");
+        }
+        String classpath = System.getProperty("java.class.path");
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<String> options = new ArrayList<>();
+            options.add("-classpath");
+            options.add(classpath);
+            options.add("-d");
+            options.add(dir.toString());
+            Boolean compiled = compiler.getTask(null, fileManager, null, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(sources)).call();
+            if (!compiled) {
+                throw new IllegalStateException("Unable to compile generated classes: " +
+                        sources.stream().map(File::getName).limit(5).collect(Collectors.joining(", ")));
+            }
+        }
+    }
+}
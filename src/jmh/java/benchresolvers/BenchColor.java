@@ -0,0 +1,7 @@
+package benchresolvers;
+
+public enum BenchColor {
+    RED,
+    GREEN,
+    BLUE,
+}
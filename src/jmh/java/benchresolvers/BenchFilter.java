@@ -0,0 +1,16 @@
+package benchresolvers;
+
+import java.util.Map;
+
+public class BenchFilter {
+    private String text;
+    private Integer limit;
+
+    public BenchFilter(Map<String, Object> source) {
+        text = (String) source.get("text");
+        limit = (Integer) source.get("limit");
+    }
+
+    public String getText() { return text; }
+    public Integer getLimit() { return limit; }
+}
@@ -0,0 +1,15 @@
+package benchresolvers;
+
+public class BenchItem implements BenchNode, BenchResult {
+    private int id;
+    private String name;
+
+    public BenchItem(int id) {
+        this.id = id;
+        this.name = "Item #" + id;
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public boolean isActive() { return true; }
+}
@@ -0,0 +1,5 @@
+package benchresolvers;
+
+public interface BenchNode {
+    int getId();
+}
@@ -0,0 +1,11 @@
+package benchresolvers;
+
+public class BenchOther implements BenchNode, BenchResult {
+    private int id;
+
+    public BenchOther(int id) {
+        this.id = id;
+    }
+
+    public int getId() { return id; }
+}
@@ -0,0 +1,30 @@
+package benchresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+public class BenchQuery {
+    public static String fetchScalars(DataFetchingEnvironment env,
+                                      Boolean flag, Integer count, Double ratio, String text) {
+        return text;
+    }
+
+    public static String fetchEnumArg(DataFetchingEnvironment env, BenchColor color) {
+        return color.name();
+    }
+
+    public static String fetchInputArg(DataFetchingEnvironment env, BenchFilter filter) {
+        return filter.getText();
+    }
+
+    public static BenchItem fetchItem(DataFetchingEnvironment env) {
+        return new BenchItem(1);
+    }
+
+    public static BenchNode fetchNode(DataFetchingEnvironment env) {
+        return new BenchOther(2);
+    }
+
+    public static BenchResult fetchResult(DataFetchingEnvironment env) {
+        return new BenchItem(3);
+    }
+}
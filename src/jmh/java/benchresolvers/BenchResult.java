@@ -0,0 +1,4 @@
+package benchresolvers;
+
+public interface BenchResult {
+}
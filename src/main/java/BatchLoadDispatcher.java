@@ -0,0 +1,97 @@
+import graphql.execution.instrumentation.NoOpInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Dispatches the loaders of one batch of executions, see
+ * {@link ReflectionGraphQL#executeBatchAsync(java.util.List, DataLoaderRegistry)}. It counts the runs that may
+ * queue loads: starting the executions, completing a value a fetcher waits for and every batch that is loading.
+ * Whenever the last of them ends, every loader with queued loads is dispatched, so a level of loads goes out once
+ * all fetches that could still add to it have been accounted for.
+ */
+final class BatchLoadDispatcher extends NoOpInstrumentation {
+    private final DataLoaderRegistry registry;
+    private int running;
+
+    BatchLoadDispatcher(DataLoaderRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters) {
+        return env -> {
+            Object value = dataFetcher.get(env);
+            if (!(value instanceof CompletionStage)) {
+                return value;
+            }
+            CompletableFuture<?> future = ((CompletionStage<?>) value).toCompletableFuture();
+            if (future.isDone()) {
+                return future;
+            }
+            // the execution continues on whatever completes the value, which is where its next loads get queued
+            CompletableFuture<Object> tracked = new CompletableFuture<>();
+            future.whenComplete((result, exception) -> {
+                begin();
+                try {
+                    if (exception != null) {
+                        tracked.completeExceptionally(exception);
+                    } else {
+                        tracked.complete(result);
+                    }
+                } finally {
+                    end();
+                }
+            });
+            return tracked;
+        };
+    }
+
+    void begin() {
+        synchronized (this) {
+            running++;
+        }
+    }
+
+    void end() {
+        synchronized (this) {
+            if (--running > 0) {
+                return;
+            }
+        }
+        List<DataLoader<?, ?>> queued = queued();
+        if (queued.isEmpty()) {
+            return;
+        }
+        begin();
+        try {
+            // batch loaders may load from the same registry and batches may complete right away, their loads go too
+            while (!queued.isEmpty()) {
+                for (DataLoader<?, ?> loader : queued) {
+                    begin();
+                    loader.dispatch().whenComplete((values, exception) -> end());
+                }
+                queued = queued();
+            }
+        } finally {
+            end();
+        }
+    }
+
+    private List<DataLoader<?, ?>> queued() {
+        List<DataLoader<?, ?>> queued = new ArrayList<>();
+        for (DataLoader<?, ?> loader : registry.getDataLoaders()) {
+            if (loader.dispatchDepth() > 0) {
+                queued.add(loader);
+            }
+        }
+        return queued;
+    }
+}
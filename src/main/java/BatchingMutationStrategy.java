@@ -0,0 +1,94 @@
+import graphql.ExecutionResult;
+import graphql.execution.AbstractAsyncExecutionStrategy;
+import graphql.execution.Async;
+import graphql.execution.DataFetcherExceptionHandler;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionPath;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.SimpleDataFetcherExceptionHandler;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
+import graphql.language.Field;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Executes mutation fields one after the other like graphql-java's serial strategy, except that consecutive fields
+ * resolved by the same batch method are performed together with one call of it. The batch method performs them in
+ * the order of the fields, so the document observes the same effects as with serial execution.
+ */
+public class BatchingMutationStrategy extends AbstractAsyncExecutionStrategy {
+    private final ReflectionWiringFactory wiringFactory;
+
+    public BatchingMutationStrategy(ReflectionWiringFactory wiringFactory) {
+        this(wiringFactory, new SimpleDataFetcherExceptionHandler());
+    }
+
+    public BatchingMutationStrategy(ReflectionWiringFactory wiringFactory,
+                                    DataFetcherExceptionHandler exceptionHandler) {
+        super(exceptionHandler);
+        this.wiringFactory = wiringFactory;
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext,
+                                                      ExecutionStrategyParameters parameters) {
+        Instrumentation instrumentation = executionContext.getInstrumentation();
+        InstrumentationExecutionStrategyParameters instrumentationParameters =
+                new InstrumentationExecutionStrategyParameters(executionContext);
+        InstrumentationContext<CompletableFuture<ExecutionResult>> executionStrategyCtx =
+                instrumentation.beginExecutionStrategy(instrumentationParameters);
+
+        Map<String, List<Field>> fields = parameters.fields();
+        String typeName = parameters.typeInfo().getType().getName();
+        List<String> fieldNames = new ArrayList<>(fields.keySet());
+        List<List<String>> runs = new ArrayList<>();
+        for (String fieldName : fieldNames) {
+            List<String> run = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            String name = fields.get(fieldName).get(0).getName();
+            if (run != null && wiringFactory.isBatched(typeName, name)
+                    && name.equals(fields.get(run.get(0)).get(0).getName())) {
+                run.add(fieldName);
+            } else {
+                run = new ArrayList<>();
+                run.add(fieldName);
+                runs.add(run);
+            }
+        }
+
+        CompletableFuture<List<List<ExecutionResult>>> runResults = Async.eachSequentially(runs,
+                (run, index, previousResults) -> resolveRun(executionContext, parameters, run));
+        CompletableFuture<List<ExecutionResult>> results = runResults.thenApply(lists -> {
+            List<ExecutionResult> flattened = new ArrayList<>(fieldNames.size());
+            lists.forEach(flattened::addAll);
+            return flattened;
+        });
+
+        CompletableFuture<ExecutionResult> overallResult = new CompletableFuture<>();
+        results.whenComplete(handleResults(executionContext, fieldNames, overallResult));
+        executionStrategyCtx.onEnd(overallResult, null);
+        return overallResult;
+    }
+
+    private CompletableFuture<List<ExecutionResult>> resolveRun(ExecutionContext executionContext,
+                                                                ExecutionStrategyParameters parameters,
+                                                                List<String> run) {
+        List<CompletableFuture<ExecutionResult>> results = new ArrayList<>(run.size());
+        MutationBatcher.hold();
+        try {
+            for (String fieldName : run) {
+                List<Field> currentField = parameters.fields().get(fieldName);
+                ExecutionPath fieldPath = parameters.path().segment(fieldName);
+                results.add(resolveField(executionContext,
+                        parameters.transform(builder -> builder.field(currentField).path(fieldPath))));
+            }
+        } finally {
+            MutationBatcher.release();
+        }
+        return Async.each(results);
+    }
+}
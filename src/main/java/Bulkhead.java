@@ -0,0 +1,174 @@
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Limits how many calls of a resolver, or of all resolvers of a class, run at the same time. The limit adapts with
+ * additive increase and multiplicative decrease: every successful call raises it by the inverse of the current
+ * limit, so it grows by about one per limit's worth of calls, and every failed call halves it. Calls over the limit
+ * are rejected right away rather than queued, so a slow dependency cannot tie up threads waiting for it.
+ * <p>
+ * A circuit breaker opens after a number of consecutive failures and rejects all calls until the open duration has
+ * passed. A single trial call is then let through, closing the circuit again if it succeeds.
+ */
+public class Bulkhead {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private double limit;
+    private int inFlight;
+    private int consecutiveFailures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long accepted;
+    private long rejected;
+    private long failed;
+
+    private Bulkhead(Builder builder) {
+        this.name = builder.name;
+        this.minimumLimit = builder.minimumLimit;
+        this.maximumLimit = builder.maximumLimit;
+        this.failureThreshold = builder.failureThreshold;
+        this.openNanos = builder.openDuration.toNanos();
+        this.limit = builder.initialLimit;
+    }
+
+    public static Builder newBulkhead(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * Takes a permit for one call, to be given back with {@link #release(boolean)} once the call completed.
+     *
+     * @throws RejectedExecutionException if the limit is reached or the circuit is open
+     */
+    public synchronized void acquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.OPEN || state == State.HALF_OPEN && trialInFlight) {
+            rejected++;
+            throw new RejectedExecutionException(String.format("Circuit of bulkhead '%s' is open", name));
+        }
+        if (inFlight >= (int) limit) {
+            rejected++;
+            throw new RejectedExecutionException(String.format(
+                    "Bulkhead '%s' is at its limit of %d concurrent calls", name, (int) limit));
+        }
+        if (state == State.HALF_OPEN) {
+            trialInFlight = true;
+        }
+        inFlight++;
+        accepted++;
+    }
+
+    /**
+     * Gives back a permit without a call having been made, for instance because another bulkhead rejected it.
+     */
+    public synchronized void cancel() {
+        inFlight--;
+        accepted--;
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized void release(boolean success) {
+        inFlight--;
+        if (success) {
+            consecutiveFailures = 0;
+            limit = Math.min(limit + 1 / limit, maximumLimit);
+            if (state == State.HALF_OPEN) {
+                state = State.CLOSED;
+                trialInFlight = false;
+            }
+        } else {
+            failed++;
+            consecutiveFailures++;
+            limit = Math.max(limit / 2, minimumLimit);
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+                trialInFlight = false;
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getAccepted() {
+        return accepted;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Bulkhead{name=%s, state=%s, limit=%d, inFlight=%d, accepted=%d, rejected=%d, failed=%d}",
+                name, state, (int) limit, inFlight, accepted, rejected, failed);
+    }
+
+    public static class Builder {
+        private final String name;
+        private int minimumLimit = 1;
+        private int initialLimit = 10;
+        private int maximumLimit = 100;
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder limits(int minimumLimit, int initialLimit, int maximumLimit) {
+            if (minimumLimit < 1 || initialLimit < minimumLimit || maximumLimit < initialLimit) {
+                throw new IllegalArgumentException(String.format("Invalid limits %d <= %d <= %d",
+                        minimumLimit, initialLimit, maximumLimit));
+            }
+            this.minimumLimit = minimumLimit;
+            this.initialLimit = initialLimit;
+            this.maximumLimit = maximumLimit;
+            return this;
+        }
+
+        public Builder circuitBreaker(int failureThreshold, Duration openDuration) {
+            if (failureThreshold < 1) {
+                throw new IllegalArgumentException("Failure threshold must be positive but was " + failureThreshold);
+            }
+            this.failureThreshold = failureThreshold;
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        public Bulkhead build() {
+            return new Bulkhead(this);
+        }
+    }
+}
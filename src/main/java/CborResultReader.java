@@ -0,0 +1,192 @@
+import graphql.schema.idl.TypeDefinitionRegistry;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads results written by {@link CborResultWriter} back into the result specification map, made of
+ * {@code LinkedHashMap}s, {@code ArrayList}s, strings, {@code Integer}s or {@code Long}s, {@code Double}s,
+ * booleans and nulls. The reader has to be created from the same schema the writing service was wired with,
+ * results written for any other schema are rejected with an {@link IOException}. The input is read into memory
+ * first, so the declared length of every item can be checked against the bytes left before anything is allocated
+ * for it.
+ */
+public class CborResultReader {
+    private final List<String> names;
+    private final byte[] schemaHash;
+
+    public CborResultReader(TypeDefinitionRegistry registry) {
+        this(ReflectionWiringFactory.schemaNames(registry.types().values()));
+    }
+
+    public CborResultReader(List<String> names) {
+        this.names = names;
+        this.schemaHash = CborResultWriter.schemaHash(names);
+    }
+
+    public Map<String, Object> read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            bytes.write(buffer, 0, read);
+        }
+        return read(bytes.toByteArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> read(byte[] bytes) throws IOException {
+        // available() of a byte array stream is exactly the number of bytes left
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes));
+        int initial = data.readUnsignedByte();
+        if (initial >> 5 != 6 || readArgument(data, initial & 0x1f) != CborResultWriter.SCHEMA_HASH_TAG) {
+            throw new IOException("Expected a result tagged with a schema hash");
+        }
+        Object envelope = readValue(data);
+        if (!(envelope instanceof List) || ((List<?>) envelope).size() != 2
+                || !(((List<?>) envelope).get(0) instanceof byte[])) {
+            throw new IOException("Expected a schema hash and a result but found " + envelope);
+        }
+        if (!Arrays.equals(schemaHash, (byte[]) ((List<?>) envelope).get(0))) {
+            throw new IOException("The result was written for a different schema");
+        }
+        Object result = ((List<?>) envelope).get(1);
+        if (!(result instanceof Map)) {
+            throw new IOException("Expected a CBOR map but found " + result);
+        }
+        return (Map<String, Object>) result;
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        int initial = in.readUnsignedByte();
+        int majorType = initial >> 5;
+        int info = initial & 0x1f;
+        switch (majorType) {
+            case 0:
+                return number(readArgument(in, info));
+            case 1:
+                return number(-1 - readArgument(in, info));
+            case 2: {
+                byte[] bytes = new byte[length(in, readArgument(in, info), 1)];
+                in.readFully(bytes);
+                return bytes;
+            }
+            case 3:
+                return readText(in, length(in, readArgument(in, info), 1));
+            case 4: {
+                int size = length(in, readArgument(in, info), 1);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case 5: {
+                int size = length(in, readArgument(in, info), 2);
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(in);
+                    map.put(key instanceof String ? (String) key : name(key), readValue(in));
+                }
+                return map;
+            }
+            case 6: {
+                long tag = readArgument(in, info);
+                Object value = readValue(in);
+                return tag == CborResultWriter.SCHEMA_NAME_TAG ? name(value) : value;
+            }
+            default:
+                return readSimple(in, info);
+        }
+    }
+
+    private Object readSimple(DataInputStream in, int info) throws IOException {
+        switch (info) {
+            case 20:
+                return false;
+            case 21:
+                return true;
+            case 22:
+            case 23:
+                return null;
+            case 25:
+                return halfToDouble(in.readUnsignedShort());
+            case 26:
+                return (double) Float.intBitsToFloat(in.readInt());
+            case 27:
+                return Double.longBitsToDouble(in.readLong());
+            default:
+                throw new IOException("Unsupported CBOR simple value " + info);
+        }
+    }
+
+    private long readArgument(DataInputStream in, int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24:
+                return in.readUnsignedByte();
+            case 25:
+                return in.readUnsignedShort();
+            case 26:
+                return in.readInt() & 0xffffffffL;
+            case 27:
+                return in.readLong();
+            default:
+                throw new IOException("Unsupported CBOR length " + info);
+        }
+    }
+
+    private String readText(DataInputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String name(Object index) throws IOException {
+        if (!(index instanceof Number) || ((Number) index).longValue() < 0
+                || ((Number) index).longValue() >= names.size()) {
+            throw new IOException("Unknown schema name index " + index);
+        }
+        return names.get(((Number) index).intValue());
+    }
+
+    private static Object number(long value) {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    /**
+     * Checks the declared length of an item against the bytes left, every entry takes at least the given number
+     * of bytes.
+     */
+    private static int length(DataInputStream in, long length, int entryBytes) throws IOException {
+        int remaining = in.available();
+        if (length < 0 || length > remaining / entryBytes) {
+            throw new IOException(String.format("CBOR item declares %s entries but only %d bytes are left",
+                    Long.toUnsignedString(length), remaining));
+        }
+        return (int) length;
+    }
+
+    private static double halfToDouble(int half) {
+        int exponent = half >> 10 & 0x1f;
+        int mantissa = half & 0x3ff;
+        double value;
+        if (exponent == 0) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+}
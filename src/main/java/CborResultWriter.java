@@ -0,0 +1,228 @@
+import graphql.ExecutionResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Writes execution results as CBOR (RFC 7049). Map keys that are field or enum names of the schema are written
+ * as their index in {@link ReflectionWiringFactory#getSchemaNames()}, string values that are such names as that
+ * index tagged with {@value #SCHEMA_NAME_TAG}. The tag lies in the first come first served range rather than being
+ * the registered string reference tag 25, which indexes strings seen earlier in the same item instead of a table
+ * shared with the reader. Everything else is plain CBOR, so {@link CborResultReader} built from the same schema
+ * restores the result specification map.
+ * <p>
+ * Adding or renaming a type or field shifts the indexes, so the result map is written as the second item of an
+ * array tagged with {@value #SCHEMA_HASH_TAG}, whose first item is a byte string hashing the schema names. Readers
+ * reject results whose hash does not match their own names instead of decoding the wrong ones.
+ */
+public class CborResultWriter {
+    static final int SCHEMA_NAME_TAG = 42042;
+    static final int SCHEMA_HASH_TAG = 42043;
+    private static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+    private final byte[] schemaHash;
+    private final Queue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+
+    public CborResultWriter(ReflectionWiringFactory wiringFactory) {
+        List<String> names = wiringFactory.getSchemaNames();
+        for (int i = 0; i < names.size(); i++) {
+            nameIndex.put(names.get(i), i);
+        }
+        schemaHash = schemaHash(names);
+    }
+
+    /**
+     * Returns the first 8 bytes of the SHA-256 of the names, each followed by a newline.
+     */
+    static byte[] schemaHash(List<String> names) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String name : names) {
+            digest.update((name + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        return Arrays.copyOf(digest.digest(), 8);
+    }
+
+    public void write(ExecutionResult result, OutputStream out) throws IOException {
+        byte[] buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new byte[DEFAULT_BUFFER_SIZE];
+        }
+        try {
+            Output output = new Output(out, buffer);
+            output.putHead(6, SCHEMA_HASH_TAG);
+            output.putHead(4, 2);
+            output.putHead(2, schemaHash.length);
+            for (byte b : schemaHash) {
+                output.put(b);
+            }
+            output.putValue(result.toSpecification());
+            output.flush();
+        } finally {
+            buffers.offer(buffer);
+        }
+    }
+
+    private final class Output {
+        private final OutputStream out;
+        private final byte[] buffer;
+        private int position;
+
+        Output(OutputStream out, byte[] buffer) {
+            this.out = out;
+            this.buffer = buffer;
+        }
+
+        void putValue(Object value) throws IOException {
+            if (value == null) {
+                put(0xf6);
+            } else if (value instanceof String) {
+                Integer index = nameIndex.get(value);
+                if (index != null) {
+                    putHead(6, SCHEMA_NAME_TAG);
+                    putHead(0, index);
+                } else {
+                    putText((String) value);
+                }
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                putHead(5, map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    String key = String.valueOf(entry.getKey());
+                    Integer index = nameIndex.get(key);
+                    if (index != null) {
+                        putHead(0, index);
+                    } else {
+                        putText(key);
+                    }
+                    putValue(entry.getValue());
+                }
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                putHead(4, list.size());
+                for (Object item : list) {
+                    putValue(item);
+                }
+            } else if (value instanceof Integer || value instanceof Long
+                    || value instanceof Short || value instanceof Byte) {
+                long number = ((Number) value).longValue();
+                if (number < 0) {
+                    putHead(1, -1 - number);
+                } else {
+                    putHead(0, number);
+                }
+            } else if (value instanceof Double || value instanceof Float) {
+                double number = ((Number) value).doubleValue();
+                if (Double.isNaN(number) || Double.isInfinite(number)) {
+                    put(0xf6);
+                } else if ((float) number == number) {
+                    put(0xfa);
+                    putBits(Float.floatToIntBits((float) number), 4);
+                } else {
+                    put(0xfb);
+                    putBits(Double.doubleToLongBits(number), 8);
+                }
+            } else if (value instanceof Boolean) {
+                put((Boolean) value ? 0xf5 : 0xf4);
+            } else {
+                putText(value.toString());
+            }
+        }
+
+        private void putText(String value) throws IOException {
+            int length = value.length();
+            int utf8Length = 0;
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    utf8Length += 1;
+                } else if (c < 0x800) {
+                    utf8Length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    utf8Length += 4;
+                    i++;
+                } else {
+                    utf8Length += 3;
+                }
+            }
+            putHead(3, utf8Length);
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    put(c);
+                } else if (c < 0x800) {
+                    put(0xc0 | c >> 6);
+                    put(0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    put(0xf0 | codePoint >> 18);
+                    put(0x80 | codePoint >> 12 & 0x3f);
+                    put(0x80 | codePoint >> 6 & 0x3f);
+                    put(0x80 | codePoint & 0x3f);
+                } else if (Character.isSurrogate(c)) {
+                    // an unpaired surrogate, written as U+FFFD like String.getBytes does
+                    put(0xef);
+                    put(0xbf);
+                    put(0xbd);
+                } else {
+                    put(0xe0 | c >> 12);
+                    put(0x80 | c >> 6 & 0x3f);
+                    put(0x80 | c & 0x3f);
+                }
+            }
+        }
+
+        private void putHead(int majorType, long value) throws IOException {
+            int type = majorType << 5;
+            if (value < 24) {
+                put(type | (int) value);
+            } else if (value <= 0xffL) {
+                put(type | 24);
+                putBits(value, 1);
+            } else if (value <= 0xffffL) {
+                put(type | 25);
+                putBits(value, 2);
+            } else if (value <= 0xffffffffL) {
+                put(type | 26);
+                putBits(value, 4);
+            } else {
+                put(type | 27);
+                putBits(value, 8);
+            }
+        }
+
+        private void putBits(long bits, int bytes) throws IOException {
+            for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+                put((int) (bits >>> shift));
+            }
+        }
+
+        private void put(int b) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        void flush() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
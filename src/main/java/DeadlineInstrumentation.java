@@ -0,0 +1,121 @@
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.NoOpInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import resolver.Deadline;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Bounds executions and their fields by deadlines. Every execution may take up to an execution timeout, every field
+ * up to the timeout set on the {@link ReflectionWiringFactory}, declared by its fetch method, or the default field
+ * timeout, and never beyond the execution's deadline. Resolvers see their field's deadline as
+ * {@link Deadline#current()}. A field whose deadline has passed before it is fetched fails without calling its
+ * resolver, and a future it returned that is still pending at the deadline is no longer waited for. The future
+ * itself is left alone, since it may be shared, for example by a data loader's cache. Either way the field gets a
+ * TIMEOUT error and the rest of the result is returned as usual. Deferred and streamed fields are fetched through
+ * the same instrumentation and are bound by the same deadlines. Mutations resolved by batch methods keep their
+ * deadline while they wait for their batch, see {@link MutationBatcher}. Every event of a subscription executed by
+ * an {@link EventStreamExecutionStrategy} gets an execution deadline of its own.
+ */
+public class DeadlineInstrumentation extends NoOpInstrumentation {
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "resolver-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final ReflectionWiringFactory wiringFactory;
+    private final Duration executionTimeout;
+    private final Duration defaultFieldTimeout;
+
+    /**
+     * @param executionTimeout    the time every execution may take, or null for no execution deadline
+     * @param defaultFieldTimeout the time fields without a timeout of their own may take, or null for no limit
+     */
+    public DeadlineInstrumentation(ReflectionWiringFactory wiringFactory, Duration executionTimeout,
+                                   Duration defaultFieldTimeout) {
+        this.wiringFactory = wiringFactory;
+        this.executionTimeout = executionTimeout;
+        this.defaultFieldTimeout = defaultFieldTimeout;
+    }
+
+    /**
+     * Returns whether fields without a timeout of their own are bound too. When they are not, fields resolved by
+     * getters are never touched.
+     */
+    boolean bindsEveryField() {
+        return executionTimeout != null || defaultFieldTimeout != null;
+    }
+
+    @Override
+    public InstrumentationState createState() {
+        return new DeadlineState(executionTimeout == null ? Deadline.NONE : Deadline.after(executionTimeout));
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters) {
+        DeadlineState state = parameters.getInstrumentationState();
+        DataFetchingEnvironment environment = parameters.getEnvironment();
+        String typeName = environment.getParentType().getName();
+        String fieldName = environment.getFieldDefinition().getName();
+        Duration fieldTimeout = wiringFactory.getTimeout(typeName, fieldName);
+        if (fieldTimeout == null) {
+            fieldTimeout = defaultFieldTimeout;
+        }
+        if (fieldTimeout == null && state.deadline.isNone()) {
+            return dataFetcher;
+        }
+        Duration timeout = fieldTimeout;
+        return env -> {
+            Deadline deadline = timeout == null ? state.deadline : state.deadline.min(Deadline.after(timeout));
+            if (deadline.isExpired()) {
+                throw timeoutException(typeName, fieldName);
+            }
+            Object value = deadline.call(() -> dataFetcher.get(env));
+            if (value instanceof CompletionStage) {
+                return bound(((CompletionStage<?>) value).toCompletableFuture(), deadline, typeName, fieldName);
+            }
+            return value;
+        };
+    }
+
+    private CompletableFuture<Object> bound(CompletableFuture<?> future, Deadline deadline, String typeName,
+                                            String fieldName) {
+        CompletableFuture<Object> bounded = new CompletableFuture<>();
+        ScheduledFuture<?> timer = TIMER.schedule(() -> {
+            if (!bounded.isDone()) {
+                bounded.completeExceptionally(timeoutException(typeName, fieldName));
+            }
+        }, deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        future.whenComplete((result, exception) -> {
+            timer.cancel(false);
+            if (exception != null) {
+                bounded.completeExceptionally(exception);
+            } else {
+                bounded.complete(result);
+            }
+        });
+        return bounded;
+    }
+
+    private ResolverException timeoutException(String typeName, String fieldName) {
+        return wiringFactory.timeoutException(typeName, fieldName, new TimeoutException(
+                String.format("Field '%s.%s' exceeded its deadline", typeName, fieldName)));
+    }
+
+    private static class DeadlineState implements InstrumentationState {
+        private final Deadline deadline;
+
+        private DeadlineState(Deadline deadline) {
+            this.deadline = deadline;
+        }
+    }
+}
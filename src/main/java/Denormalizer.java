@@ -0,0 +1,55 @@
+import java.util.*;
+
+/**
+ * Restores the data of a result produced by {@link NormalizingExecutionStrategy}, replacing every
+ * {@code {"__ref": "Type:id"}} by the entity it references. Entities referenced more than once are shared,
+ * not copied.
+ */
+public class Denormalizer {
+    private Denormalizer() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Object denormalize(Map<String, Object> specification) {
+        Map<String, Object> extensions = (Map<String, Object>) specification.get("extensions");
+        Map<String, Object> entities = extensions == null
+                ? Collections.emptyMap()
+                : (Map<String, Object>) extensions.getOrDefault(NormalizingExecutionStrategy.ENTITIES,
+                        Collections.emptyMap());
+        return denormalize(specification.get("data"), entities);
+    }
+
+    public static Object denormalize(Object data, Map<String, Object> entities) {
+        return resolve(data, entities, new HashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object resolve(Object value, Map<String, Object> entities, Map<String, Object> resolved) {
+        if (value instanceof Map) {
+            Map<String, Object> map = (Map<String, Object>) value;
+            Object ref = map.size() == 1 ? map.get(NormalizingExecutionStrategy.REF) : null;
+            if (ref != null) {
+                String key = ref.toString();
+                Object entity = resolved.get(key);
+                if (entity == null) {
+                    if (!entities.containsKey(key)) {
+                        throw new IllegalArgumentException("Reference to unknown entity '" + key + "'");
+                    }
+                    entity = resolve(entities.get(key), entities, resolved);
+                    resolved.put(key, entity);
+                }
+                return entity;
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            map.forEach((field, fieldValue) -> result.put(field, resolve(fieldValue, entities, resolved)));
+            return result;
+        } else if (value instanceof List) {
+            List<Object> result = new ArrayList<>();
+            for (Object item : (List<Object>) value) {
+                result.add(resolve(item, entities, resolved));
+            }
+            return result;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,92 @@
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded, least recently used cache of parsed and validated documents keyed by query text. Documents that
+ * failed to parse or validate are cached as well, so a client repeating a broken query does not get it parsed
+ * again every time.
+ */
+public class DocumentCache implements PreparsedDocumentProvider {
+    private final int maximumSize;
+    private final Map<String, PreparsedDocumentEntry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public DocumentCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive but was " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<String, PreparsedDocumentEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+                if (size() > DocumentCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public PreparsedDocumentEntry get(String query, Function<String, PreparsedDocumentEntry> parseAndValidate) {
+        PreparsedDocumentEntry entry;
+        synchronized (entries) {
+            entry = entries.get(query);
+        }
+        if (entry != null) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        // parsed outside the lock, two threads missing on the same query both parse it and the last one wins
+        entry = parseAndValidate.apply(query);
+        synchronized (entries) {
+            entries.put(query, entry);
+        }
+        return entry;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DocumentCache{size=%d, maximumSize=%d, hits=%d, misses=%d, evictions=%d}",
+                size(), maximumSize, getHits(), getMisses(), getEvictions());
+    }
+}
@@ -0,0 +1,217 @@
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.execution.DataFetcherExceptionHandler;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionPath;
+import graphql.execution.ExecutionStrategy;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.SimpleDataFetcherExceptionHandler;
+import graphql.language.Field;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Executes subscriptions whose root field is fetched as a {@link Publisher} of events. The result data is a
+ * publisher of one {@link ExecutionResult} per event, the selection of the root field resolved against the event
+ * through the regular data fetchers. Demand of a subscriber is passed on to the source unchanged, so a slow
+ * subscriber holds back the source instead of having events buffered for it, and at most as many events as it
+ * requested are being resolved at a time. Results are delivered one at a time in the order of their events, even
+ * when later events resolve first.
+ * <p>
+ * Every event is resolved with a fresh instrumentation state, as if it were an execution of its own. A subscription
+ * outlives any execution deadline of a {@link DeadlineInstrumentation}, so each event gets a deadline of its own,
+ * and the limits of a {@link ResultLimitInstrumentation} apply to the result of each event.
+ */
+public class EventStreamExecutionStrategy extends ExecutionStrategy {
+
+    public EventStreamExecutionStrategy() {
+        this(new SimpleDataFetcherExceptionHandler());
+    }
+
+    public EventStreamExecutionStrategy(DataFetcherExceptionHandler exceptionHandler) {
+        super(exceptionHandler);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext,
+                                                      ExecutionStrategyParameters parameters) {
+        ExecutionStrategyParameters fieldParameters = rootFieldParameters(parameters);
+        return fetchField(executionContext, fieldParameters).thenApply(source -> {
+            if (source == null) {
+                return new ExecutionResultImpl(null, executionContext.getErrors());
+            }
+            if (!(source instanceof Publisher)) {
+                throw new IllegalStateException("Subscription field '" + fieldParameters.path()
+                        + "' was not fetched as a Publisher of events");
+            }
+            @SuppressWarnings("unchecked")
+            Publisher<Object> events = (Publisher<Object>) source;
+            Publisher<ExecutionResult> results = new ResolvedEventPublisher(events,
+                    event -> executeEvent(executionContext, fieldParameters, event));
+            return new ExecutionResultImpl(results, executionContext.getErrors());
+        });
+    }
+
+    private CompletableFuture<ExecutionResult> executeEvent(ExecutionContext executionContext,
+                                                            ExecutionStrategyParameters fieldParameters, Object event) {
+        ExecutionContext eventContext = executionContext.transform(builder -> builder
+                .root(event)
+                .instrumentationState(executionContext.getInstrumentation().createState()));
+        String resultKey = fieldParameters.fields().keySet().iterator().next();
+        return completeField(eventContext, fieldParameters, event).thenApply(result -> new ExecutionResultImpl(
+                Collections.singletonMap(resultKey, result.getData()), eventContext.getErrors()));
+    }
+
+    private ExecutionStrategyParameters rootFieldParameters(ExecutionStrategyParameters parameters) {
+        Map<String, List<Field>> fields = parameters.fields();
+        List<Field> rootField = fields.values().iterator().next();
+        ExecutionPath fieldPath = parameters.path().segment(rootField.get(0).getName());
+        return parameters.transform(builder -> builder.field(rootField).path(fieldPath));
+    }
+
+    private static final class ResolvedEventPublisher implements Publisher<ExecutionResult> {
+        private final Publisher<Object> events;
+        private final Function<Object, CompletableFuture<ExecutionResult>> resolver;
+
+        private ResolvedEventPublisher(Publisher<Object> events,
+                                       Function<Object, CompletableFuture<ExecutionResult>> resolver) {
+            this.events = events;
+            this.resolver = resolver;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ExecutionResult> subscriber) {
+            events.subscribe(new EventSubscriber(subscriber, resolver));
+        }
+    }
+
+    /**
+     * Resolves events as they arrive and delivers their results in order. Whichever thread completes the head of
+     * the queue drains it, the work counter makes sure only one thread signals the subscriber at a time.
+     */
+    private static final class EventSubscriber implements Subscriber<Object>, Subscription {
+        private final Subscriber<? super ExecutionResult> subscriber;
+        private final Function<Object, CompletableFuture<ExecutionResult>> resolver;
+        private final Queue<CompletableFuture<ExecutionResult>> pending = new ArrayDeque<>();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile Subscription subscription;
+        private volatile boolean cancelled;
+        private boolean done;
+        private Throwable error;
+        private boolean terminated;
+
+        private EventSubscriber(Subscriber<? super ExecutionResult> subscriber,
+                                Function<Object, CompletableFuture<ExecutionResult>> resolver) {
+            this.subscriber = subscriber;
+            this.resolver = resolver;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(Object event) {
+            CompletableFuture<ExecutionResult> result;
+            try {
+                result = resolver.apply(event);
+            } catch (RuntimeException e) {
+                result = new CompletableFuture<>();
+                result.completeExceptionally(e);
+            }
+            synchronized (this) {
+                pending.add(result);
+            }
+            result.whenComplete((r, e) -> drain());
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            synchronized (this) {
+                error = t;
+                done = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                done = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            // the source never has more events outstanding than the subscriber asked for
+            subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscription.cancel();
+            synchronized (this) {
+                pending.forEach(result -> result.cancel(true));
+                pending.clear();
+            }
+        }
+
+        private void drain() {
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!terminated && !cancelled) {
+                    CompletableFuture<ExecutionResult> head;
+                    Throwable failure = null;
+                    synchronized (this) {
+                        head = pending.peek();
+                        if (head == null || !head.isDone()) {
+                            if (done && head == null) {
+                                terminated = true;
+                                failure = error;
+                            } else {
+                                break;
+                            }
+                        } else {
+                            pending.poll();
+                        }
+                    }
+                    if (terminated) {
+                        if (failure != null) {
+                            subscriber.onError(failure);
+                        } else {
+                            subscriber.onComplete();
+                        }
+                        break;
+                    }
+                    ExecutionResult result;
+                    try {
+                        result = head.join();
+                    } catch (CompletionException e) {
+                        terminated = true;
+                        subscription.cancel();
+                        subscriber.onError(e.getCause());
+                        break;
+                    }
+                    subscriber.onNext(result);
+                }
+            } while (work.decrementAndGet() != 0);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.DataFetcherExceptionHandler;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.FieldCollectorParameters;
+import graphql.execution.SimpleDataFetcherExceptionHandler;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.NoOpInstrumentation;
+import graphql.language.Field;
+import graphql.schema.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Completes values whose type is a getter-only object type of a {@link ReflectionWiringFactory}, or a list of
+ * them, by walking the Java objects directly with the factory's compiled accessors instead of running a
+ * data fetcher, instrumentation and result wrappers for every field. Anything the walk cannot complete as
+ * graphql-java would (a null for a non null type, a failing getter or coercion) falls back to the regular
+ * execution of that value.
+ * <p>
+ * Fields completed by the walk bypass their wired data fetchers, so they are not seen by instrumentation, do not
+ * record {@link ResolverInvocationEvent}s and do not count towards the factory's resolver error counts. The walk is
+ * therefore only used when the execution runs with the default {@link NoOpInstrumentation}, or with a
+ * {@link DeadlineInstrumentation} that only binds fields with timeouts of their own, which getters can't have. Any
+ * other instrumentation executes every field the regular way.
+ */
+public class GetterSubtreeExecutionStrategy extends AsyncExecutionStrategy {
+    private static final Fallback FALLBACK = new Fallback();
+
+    private final ReflectionWiringFactory wiringFactory;
+
+    public GetterSubtreeExecutionStrategy(ReflectionWiringFactory wiringFactory) {
+        this(wiringFactory, new SimpleDataFetcherExceptionHandler());
+    }
+
+    public GetterSubtreeExecutionStrategy(ReflectionWiringFactory wiringFactory,
+                                          DataFetcherExceptionHandler exceptionHandler) {
+        super(exceptionHandler);
+        this.wiringFactory = wiringFactory;
+    }
+
+    @Override
+    protected CompletableFuture<ExecutionResult> completeValue(ExecutionContext executionContext,
+                                                               ExecutionStrategyParameters parameters) {
+        Object source = unboxPossibleOptional(parameters.source());
+        GraphQLType type = parameters.typeInfo().getType();
+        if (source != null && isUninstrumented(executionContext) && isGetterSubtree(type)) {
+            try {
+                Object data = new Walk(executionContext).complete(type, parameters.field(), source);
+                return CompletableFuture.completedFuture(new ExecutionResultImpl(data, null));
+            } catch (Fallback e) {
+                // complete this value the regular way, which also reports the problem
+            }
+        }
+        return super.completeValue(executionContext, parameters);
+    }
+
+    private static boolean isUninstrumented(ExecutionContext executionContext) {
+        Instrumentation instrumentation = executionContext.getInstrumentation();
+        return instrumentation.getClass() == NoOpInstrumentation.class
+                || instrumentation.getClass() == DeadlineInstrumentation.class
+                && !((DeadlineInstrumentation) instrumentation).bindsEveryField();
+    }
+
+    private boolean isGetterSubtree(GraphQLType type) {
+        while (type instanceof GraphQLList || type instanceof GraphQLNonNull) {
+            type = type instanceof GraphQLList
+                    ? ((GraphQLList) type).getWrappedType()
+                    : ((GraphQLNonNull) type).getWrappedType();
+        }
+        return type instanceof GraphQLObjectType
+                && wiringFactory.getGetterAccessors(type.getName()) != null;
+    }
+
+    private final class Walk {
+        private final ExecutionContext executionContext;
+        private final Map<List<Field>, ObjectPlan> plans = new IdentityHashMap<>();
+
+        Walk(ExecutionContext executionContext) {
+            this.executionContext = executionContext;
+        }
+
+        Object complete(GraphQLType type, List<Field> fields, Object value) {
+            value = unboxPossibleOptional(value);
+            if (type instanceof GraphQLNonNull) {
+                if (value == null) {
+                    throw FALLBACK;
+                }
+                return complete(((GraphQLNonNull) type).getWrappedType(), fields, value);
+            }
+            if (value == null) {
+                return null;
+            }
+            if (type instanceof GraphQLList) {
+                GraphQLType itemType = ((GraphQLList) type).getWrappedType();
+                List<Object> items = new ArrayList<>();
+                for (Object item : toIterable(value)) {
+                    items.add(complete(itemType, fields, item));
+                }
+                return items;
+            }
+            if (type instanceof GraphQLScalarType) {
+                Object serialized = serialize(((GraphQLScalarType) type).getCoercing(), value);
+                if (serialized instanceof Double && ((Double) serialized).isNaN()) {
+                    return null;
+                }
+                return serialized;
+            }
+            if (type instanceof GraphQLEnumType) {
+                return serialize(((GraphQLEnumType) type).getCoercing(), value);
+            }
+            return completeObject((GraphQLObjectType) type, fields, value);
+        }
+
+        private Object completeObject(GraphQLObjectType type, List<Field> fields, Object value) {
+            ObjectPlan plan = plans.computeIfAbsent(fields, f -> new ObjectPlan(executionContext, type, f));
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (int i = 0; i < plan.resultKeys.length; i++) {
+                Object fieldValue;
+                try {
+                    fieldValue = plan.accessors[i].apply(value);
+                } catch (RuntimeException e) {
+                    throw FALLBACK;
+                }
+                result.put(plan.resultKeys[i], plan.types[i] == null
+                        ? fieldValue
+                        : complete(plan.types[i], plan.subFields.get(i), fieldValue));
+            }
+            return result;
+        }
+
+        private Object serialize(Coercing<?, ?> coercing, Object value) {
+            try {
+                return coercing.serialize(value);
+            } catch (RuntimeException e) {
+                throw FALLBACK;
+            }
+        }
+    }
+
+    private final class ObjectPlan {
+        private final String[] resultKeys;
+        private final Function<Object, Object>[] accessors;
+        private final GraphQLType[] types;
+        private final List<List<Field>> subFields = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        ObjectPlan(ExecutionContext executionContext, GraphQLObjectType type, List<Field> fields) {
+            FieldCollectorParameters collectorParameters = FieldCollectorParameters.newParameters()
+                    .schema(executionContext.getGraphQLSchema())
+                    .objectType(type)
+                    .fragments(executionContext.getFragmentsByName())
+                    .variables(executionContext.getVariables())
+                    .build();
+            Map<String, List<Field>> collected = fieldCollector.collectFields(collectorParameters, fields);
+            Map<String, Function<Object, Object>> typeAccessors = wiringFactory.getGetterAccessors(type.getName());
+
+            resultKeys = new String[collected.size()];
+            accessors = (Function<Object, Object>[]) new Function<?, ?>[collected.size()];
+            types = new GraphQLType[collected.size()];
+
+            int i = 0;
+            for (Map.Entry<String, List<Field>> entry : collected.entrySet()) {
+                String fieldName = entry.getValue().get(0).getName();
+                resultKeys[i] = entry.getKey();
+                if (fieldName.equals("__typename")) {
+                    String typeName = type.getName();
+                    accessors[i] = source -> typeName;
+                } else {
+                    accessors[i] = typeAccessors.get(fieldName);
+                    types[i] = type.getFieldDefinition(fieldName).getType();
+                }
+                subFields.add(entry.getValue());
+                i++;
+            }
+        }
+    }
+
+    private static final class Fallback extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Fallback() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import hotel.HotelData;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drives a reflection wired GraphQL instance over the hotel schema from an increasing number of client
+ * threads and reports throughput and latency percentiles for each level.
+ *
+ * <pre>
+ * HotelLoadDriver [--threads=8] [--duration=10] [--warmup=5]
+ *                 [--hotels=100] [--rooms=10] [--facilities=5] [--seed=42] [--replay=queries.log]
+ * </pre>
+ *
+ * {@code --threads=N} runs 1, 2, 4 ... N threads, a comma separated list runs exactly those levels.
+ * A replay log holds one query per line, empty lines and lines starting with '#' are skipped.
+ */
+public class HotelLoadDriver {
+    // ids are passed as variables, so the mix is four documents that stay in the document cache
+    private static final List<String> HOTEL_QUERIES = Arrays.asList(
+            "query Hotel($id: Int) { hotel(id: $id) { id, name } }",
+            "query Hotel($id: Int) { hotel(id: $id) { id, name, rooms { id, name } } }",
+            "query Hotel($id: Int) { hotel(id: $id) { id, name, rooms { id, name, facilities { id, name } } } }");
+    private static final String HOTELS_QUERY =
+            "query Hotels($ids: [Int]) { hotels(ids: $ids) { id, name, rooms { id, facilities { name } } } }";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int duration = Integer.parseInt(options.getOrDefault("duration", "10"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        HotelData data = HotelData.generate(
+                Integer.parseInt(options.getOrDefault("hotels", "100")),
+                Integer.parseInt(options.getOrDefault("rooms", "10")),
+                Integer.parseInt(options.getOrDefault("facilities", "5")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+
+        QuerySource queries = options.containsKey("replay")
+                ? replay(options.get("replay"))
+                : synthetic(data.getHotelCount());
+
+        ReflectionGraphQL graphQL = buildGraphQL();
+
+        System.out.printf("%8s %10s %12s %10s %10s %10s %8s%n",
+                "threads", "queries", "queries/s", "p50 us", "p99 us", "p999 us", "errors");
+        for (int threads : threadLevels(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())))) {
+            run(graphQL, data, queries, threads, warmup);
+            LevelResult result = run(graphQL, data, queries, threads, duration);
+            System.out.printf("%8d %10d %12.1f %10.1f %10.1f %10.1f %8d%n",
+                    threads, result.latencies.length, result.throughput(),
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(0.999), result.errors);
+        }
+        System.out.println(graphQL.getDocumentCache());
+    }
+
+    public static ReflectionGraphQL buildGraphQL() throws IOException {
+        TypeDefinitionRegistry registry;
+        try (Reader reader = new InputStreamReader(
+                HotelLoadDriver.class.getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            registry = new SchemaParser().parse(reader);
+        }
+        return ReflectionGraphQL.newReflectionGraphQL(registry, "hotel").build();
+    }
+
+    private static LevelResult run(ReflectionGraphQL graphQL, HotelData data, QuerySource queries,
+                                   int threads, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Worker>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                Worker worker = new Worker(graphQL, data, queries);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    worker.run(System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds));
+                    return worker;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+
+            List<long[]> latencies = new ArrayList<>();
+            long errors = 0;
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                latencies.add(Arrays.copyOf(worker.latencies, worker.count));
+                errors += worker.errors;
+            }
+            return new LevelResult(latencies, errors, System.nanoTime() - started);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static QuerySource synthetic(int hotelCount) {
+        return random -> {
+            int choice = random.nextInt(HOTEL_QUERIES.size() + 1);
+            if (choice < HOTEL_QUERIES.size()) {
+                return ExecutionInput.newExecutionInput()
+                        .query(HOTEL_QUERIES.get(choice))
+                        .variables(Collections.singletonMap("id", 1 + random.nextInt(hotelCount)));
+            }
+            List<Integer> ids = Arrays.asList(
+                    1 + random.nextInt(hotelCount),
+                    1 + random.nextInt(hotelCount),
+                    1 + random.nextInt(hotelCount));
+            return ExecutionInput.newExecutionInput()
+                    .query(HOTELS_QUERY)
+                    .variables(Collections.singletonMap("ids", ids));
+        };
+    }
+
+    private static QuerySource replay(String file) throws IOException {
+        List<String> log = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .collect(Collectors.toList());
+        if (log.isEmpty()) {
+            throw new IllegalArgumentException("Query log '" + file + "' is empty");
+        }
+        AtomicLong cursor = new AtomicLong();
+        return random -> ExecutionInput.newExecutionInput()
+                .query(log.get((int) (cursor.getAndIncrement() % log.size())));
+    }
+
+    private static List<Integer> threadLevels(String threads) {
+        List<Integer> levels = new ArrayList<>();
+        if (threads.contains(",")) {
+            for (String level : threads.split(",")) {
+                levels.add(Integer.parseInt(level.trim()));
+            }
+        } else {
+            int max = Integer.parseInt(threads);
+            for (int level = 1; level < max; level *= 2) {
+                levels.add(level);
+            }
+            levels.add(max);
+        }
+        return levels;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private interface QuerySource {
+        ExecutionInput.Builder next(ThreadLocalRandom random);
+    }
+
+    private static class Worker {
+        private final ReflectionGraphQL graphQL;
+        private final HotelData data;
+        private final QuerySource queries;
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private long errors;
+
+        Worker(ReflectionGraphQL graphQL, HotelData data, QuerySource queries) {
+            this.graphQL = graphQL;
+            this.data = data;
+            this.queries = queries;
+        }
+
+        void run(long deadline) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now = System.nanoTime();
+            while (now < deadline) {
+                ExecutionInput input = queries.next(random)
+                        .context(data)
+                        .build();
+                ExecutionResult result = graphQL.execute(input);
+                long end = System.nanoTime();
+                if (!result.getErrors().isEmpty()) {
+                    errors++;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = end - now;
+                now = end;
+            }
+        }
+    }
+
+    private static class LevelResult {
+        private final long[] latencies;
+        private final long errors;
+        private final long elapsedNanos;
+
+        LevelResult(List<long[]> perThread, long errors, long elapsedNanos) {
+            this.latencies = new long[perThread.stream().mapToInt(l -> l.length).sum()];
+            int offset = 0;
+            for (long[] threadLatencies : perThread) {
+                System.arraycopy(threadLatencies, 0, latencies, offset, threadLatencies.length);
+                offset += threadLatencies.length;
+            }
+            Arrays.sort(latencies);
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Queries per second over the time the level actually ran, including the stragglers finishing after
+         * the nominal duration.
+         */
+        double throughput() {
+            return elapsedNanos == 0 ? 0 : latencies.length * 1e9 / elapsedNanos;
+        }
+
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1000.0;
+        }
+    }
+}
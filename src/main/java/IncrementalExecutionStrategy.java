@@ -0,0 +1,410 @@
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLError;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.DataFetcherExceptionHandler;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionPath;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.ExecutionTypeInfo;
+import graphql.execution.NonNullableFieldValidator;
+import graphql.execution.SimpleDataFetcherExceptionHandler;
+import graphql.introspection.Introspection;
+import graphql.language.Directive;
+import graphql.language.Field;
+import graphql.schema.GraphQLDirective;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import resolver.Cursor;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static graphql.Scalars.GraphQLBoolean;
+import static graphql.Scalars.GraphQLInt;
+import static graphql.schema.GraphQLArgument.newArgument;
+import static graphql.schema.GraphQLDirective.newDirective;
+
+/**
+ * Delivers fields marked with {@code @defer} and the items of list fields marked with {@code @stream} in payloads
+ * following the initial result, so slow fetchers do not hold back the fields that are ready. The initial result is
+ * completed as soon as every other field is, and carries a {@link Publisher} of the subsequent payloads in its
+ * {@code incremental} extension, see {@link #initialPayload} and {@link #subsequentPayloads}. Payloads are
+ * published in the order they complete, each with the path it belongs to, its {@code data} or streamed
+ * {@code items}, its own errors and whether more payloads follow in {@code hasNext}.
+ * <p>
+ * The directives have to be part of the schema, {@link ReflectionGraphQL} adds {@link #DIRECTIVES} to every schema
+ * it wires. Strategies other than this one ignore them and complete all fields inline.
+ */
+public class IncrementalExecutionStrategy extends AsyncExecutionStrategy {
+    public static final String INCREMENTAL = "incremental";
+
+    public static final GraphQLDirective DEFER = newDirective()
+            .name("defer")
+            .description("Delivers this field in a payload following the initial result unless `if` is false.")
+            .argument(newArgument().name("if").type(GraphQLBoolean).defaultValue(true))
+            .validLocations(Introspection.DirectiveLocation.FIELD)
+            .build();
+    public static final GraphQLDirective STREAM = newDirective()
+            .name("stream")
+            .description("Delivers the items of this list after the first `initialCount` in payloads of their own.")
+            .argument(newArgument().name("initialCount").type(GraphQLInt).defaultValue(0))
+            .validLocations(Introspection.DirectiveLocation.FIELD)
+            .build();
+    public static final Set<GraphQLDirective> DIRECTIVES = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(DEFER, STREAM)));
+
+    private final Map<ExecutionContext, Payloads> payloadsByExecution = new ConcurrentHashMap<>();
+
+    public IncrementalExecutionStrategy() {
+        this(new SimpleDataFetcherExceptionHandler());
+    }
+
+    public IncrementalExecutionStrategy(DataFetcherExceptionHandler exceptionHandler) {
+        super(exceptionHandler);
+    }
+
+    /**
+     * Returns the result without the publisher of subsequent payloads, ready to be written as the first payload.
+     */
+    public static ExecutionResult initialPayload(ExecutionResult result) {
+        if (result.getExtensions() == null || !result.getExtensions().containsKey(INCREMENTAL)) {
+            return result;
+        }
+        Map<Object, Object> extensions = new LinkedHashMap<>(result.getExtensions());
+        extensions.remove(INCREMENTAL);
+        return new ExecutionResultImpl(result.getData(), result.getErrors(), extensions.isEmpty() ? null : extensions);
+    }
+
+    /**
+     * Returns the publisher of the payloads following the result, which completes right away when nothing was
+     * deferred or streamed. It can be subscribed to once.
+     */
+    @SuppressWarnings("unchecked")
+    public static Publisher<Map<String, Object>> subsequentPayloads(ExecutionResult result) {
+        Object payloads = result.getExtensions() == null ? null : result.getExtensions().get(INCREMENTAL);
+        if (payloads == null) {
+            return subscriber -> {
+                subscriber.onSubscribe(NO_SUBSCRIPTION);
+                subscriber.onComplete();
+            };
+        }
+        return (Publisher<Map<String, Object>>) payloads;
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext,
+                                                      ExecutionStrategyParameters parameters) {
+        if (parameters.path().equals(ExecutionPath.rootPath())) {
+            return executeRoot(executionContext, parameters);
+        }
+        Payloads payloads = payloadsByExecution.get(executionContext);
+        if (payloads == null) {
+            return super.execute(executionContext, parameters);
+        }
+        return executeDeferring(executionContext, parameters, payloads);
+    }
+
+    private CompletableFuture<ExecutionResult> executeRoot(ExecutionContext executionContext,
+                                                           ExecutionStrategyParameters parameters) {
+        Payloads payloads = new Payloads();
+        payloadsByExecution.put(executionContext, payloads);
+        // deferred fields keep executing after the initial result, their own deferred fields still need the state
+        payloads.finished.whenComplete((r, e) -> payloadsByExecution.remove(executionContext));
+        CompletableFuture<ExecutionResult> result;
+        try {
+            result = executeDeferring(executionContext, parameters, payloads);
+        } catch (RuntimeException e) {
+            payloads.close();
+            throw e;
+        }
+        return result.whenComplete((r, e) -> payloads.close()).thenApply(r -> {
+            if (!payloads.isUsed()) {
+                return r;
+            }
+            Map<Object, Object> extensions = new LinkedHashMap<>();
+            if (r.getExtensions() != null) {
+                extensions.putAll(r.getExtensions());
+            }
+            extensions.put(INCREMENTAL, payloads);
+            return new ExecutionResultImpl(r.getData(), payloads.errorsOf(null, executionContext), extensions);
+        });
+    }
+
+    private CompletableFuture<ExecutionResult> executeDeferring(ExecutionContext executionContext,
+                                                                ExecutionStrategyParameters parameters,
+                                                                Payloads payloads) {
+        Map<String, List<Field>> fields = parameters.fields();
+        Map<String, List<Field>> immediateFields = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Field>> entry : fields.entrySet()) {
+            String fieldName = entry.getKey();
+            List<Field> currentField = entry.getValue();
+            if (!isDeferred(executionContext, currentField.get(0))) {
+                immediateFields.put(fieldName, currentField);
+                continue;
+            }
+            ExecutionPath fieldPath = parameters.path().segment(fieldName);
+            payloads.add(parameters.path(), fieldPath, "data", () -> resolveField(executionContext,
+                    parameters.transform(builder -> builder.field(currentField).path(fieldPath)))
+                    .thenApply(result -> Collections.singletonMap(fieldName, result.getData())), executionContext);
+        }
+        if (immediateFields.size() == fields.size()) {
+            return super.execute(executionContext, parameters);
+        }
+        return super.execute(executionContext, parameters.transform(builder -> builder.fields(immediateFields)));
+    }
+
+    @Override
+    protected CompletableFuture<ExecutionResult> completeValueForList(ExecutionContext executionContext,
+                                                                      ExecutionStrategyParameters parameters,
+                                                                      Iterable<Object> iterableValues) {
+        Payloads payloads = payloadsByExecution.get(executionContext);
+        List<Object> path = parameters.path().toList();
+        // items of nested lists are completed with the parameters of the field as well, only its own list streams
+        Integer initialCount = payloads == null || !(path.get(path.size() - 1) instanceof String) ? null
+                : streamInitialCount(executionContext, parameters.field().get(0));
+        if (initialCount == null) {
+            return super.completeValueForList(executionContext, parameters, iterableValues);
+        }
+
+        IntFunction<Object> row;
+        int size;
+        if (iterableValues instanceof Cursor) {
+            // the element moves with the cursor, every row is completed right after moving to it
+            Cursor<?> cursor = (Cursor<?>) iterableValues;
+            row = cursor::moveTo;
+            size = cursor.size();
+        } else {
+            List<Object> items = new ArrayList<>();
+            iterableValues.forEach(items::add);
+            row = items::get;
+            size = items.size();
+        }
+        int inline = Math.min(Math.max(initialCount, 0), size);
+        ExecutionTypeInfo typeInfo = parameters.typeInfo();
+        GraphQLList fieldType = typeInfo.castType(GraphQLList.class);
+        GraphQLFieldDefinition fieldDef = typeInfo.getFieldDefinition();
+        for (int index = inline; index < size; index++) {
+            int itemIndex = index;
+            ExecutionPath indexedPath = parameters.path().segment(index);
+            ExecutionTypeInfo wrappedTypeInfo = ExecutionTypeInfo.newTypeInfo().parentInfo(typeInfo)
+                    .type(fieldType.getWrappedType()).path(indexedPath).fieldDefinition(fieldDef).build();
+            ExecutionStrategyParameters.Builder itemParameters = ExecutionStrategyParameters.newParameters()
+                    .typeInfo(wrappedTypeInfo)
+                    .fields(parameters.fields())
+                    .nonNullFieldValidator(new NonNullableFieldValidator(executionContext, wrappedTypeInfo))
+                    .path(indexedPath)
+                    .field(parameters.field());
+            payloads.add(indexedPath, indexedPath, "items", () -> completeValue(executionContext,
+                    itemParameters.source(row.apply(itemIndex)).build())
+                    .thenApply(result -> Collections.singletonList(result.getData())), executionContext);
+        }
+        Iterable<Object> inlineItems = () -> IntStream.range(0, inline).mapToObj(row).iterator();
+        return super.completeValueForList(executionContext, parameters, inlineItems);
+    }
+
+    private boolean isDeferred(ExecutionContext executionContext, Field field) {
+        Map<String, Object> arguments = directiveArguments(executionContext, field, DEFER);
+        return arguments != null && !Boolean.FALSE.equals(arguments.get("if"));
+    }
+
+    private Integer streamInitialCount(ExecutionContext executionContext, Field field) {
+        Map<String, Object> arguments = directiveArguments(executionContext, field, STREAM);
+        return arguments == null ? null : (Integer) arguments.get("initialCount");
+    }
+
+    private Map<String, Object> directiveArguments(ExecutionContext executionContext, Field field,
+                                                   GraphQLDirective directive) {
+        Directive usage = field.getDirective(directive.getName());
+        if (usage == null) {
+            return null;
+        }
+        return valuesResolver.getArgumentValues(directive.getArguments(), usage.getArguments(),
+                executionContext.getVariables());
+    }
+
+    /**
+     * The subscription handed to subscribers that are terminated right away, nothing is ever signalled through it.
+     */
+    private static final Subscription NO_SUBSCRIPTION = new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    /**
+     * The subsequent payloads of one execution. Every payload owns the errors below its path that no payload
+     * further down owns, so each error is reported exactly once. Completed payloads are queued until the single
+     * subscriber requests them, the work counter makes sure only one thread signals it at a time.
+     */
+    private static final class Payloads implements Publisher<Map<String, Object>>, Subscription {
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private final List<List<Object>> ownedPaths = new ArrayList<>();
+        private final Queue<Map<String, Object>> ready = new ArrayDeque<>();
+        private final AtomicInteger work = new AtomicInteger();
+        private Subscriber<? super Map<String, Object>> subscriber;
+        private int pending;
+        private boolean closed;
+        private long demand;
+        private Throwable failure;
+        private boolean terminated;
+
+        private void add(ExecutionPath path, ExecutionPath ownedPath, String key, Supplier<CompletableFuture<?>> data,
+                         ExecutionContext executionContext) {
+            List<Object> owned = ownedPath.toList();
+            synchronized (this) {
+                ownedPaths.add(owned);
+                pending++;
+            }
+            CompletableFuture<?> future;
+            try {
+                future = data.get();
+            } catch (RuntimeException e) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                future = failed;
+            }
+            future.whenComplete((value, e) -> {
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("path", path.toList());
+                // a null that could not be placed in a non-null position nulls the whole payload
+                payload.put(key, e == null ? value : null);
+                List<GraphQLError> errors = errorsOf(owned, executionContext);
+                if (!errors.isEmpty()) {
+                    payload.put("errors", errors.stream().map(GraphQLError::toSpecification)
+                            .collect(Collectors.toList()));
+                }
+                synchronized (this) {
+                    ready.add(payload);
+                    pending--;
+                }
+                drain();
+            });
+        }
+
+        private synchronized boolean isUsed() {
+            return !ownedPaths.isEmpty();
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+            }
+            drain();
+        }
+
+        /**
+         * Returns the errors owned by the payload of the given path, the initial result when it is null.
+         */
+        private List<GraphQLError> errorsOf(List<Object> owned, ExecutionContext executionContext) {
+            return executionContext.getErrors().stream()
+                    .filter(error -> Objects.equals(owned, ownerOf(error.getPath())))
+                    .collect(Collectors.toList());
+        }
+
+        private synchronized List<Object> ownerOf(List<Object> errorPath) {
+            List<Object> owner = null;
+            if (errorPath == null) {
+                return null;
+            }
+            for (List<Object> ownedPath : ownedPaths) {
+                if (errorPath.size() >= ownedPath.size()
+                        && errorPath.subList(0, ownedPath.size()).equals(ownedPath)
+                        && (owner == null || ownedPath.size() > owner.size())) {
+                    owner = ownedPath;
+                }
+            }
+            return owner;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super Map<String, Object>> subscriber) {
+            synchronized (this) {
+                if (this.subscriber == null) {
+                    this.subscriber = subscriber;
+                    subscriber.onSubscribe(this);
+                    return;
+                }
+            }
+            subscriber.onSubscribe(NO_SUBSCRIPTION);
+            subscriber.onError(new IllegalStateException("Subsequent payloads can only be subscribed to once"));
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    if (failure == null) {
+                        failure = new IllegalArgumentException("Requested " + n + " payloads, it must be positive");
+                    }
+                } else {
+                    demand = n == Long.MAX_VALUE || demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                terminated = true;
+                ready.clear();
+            }
+        }
+
+        private void drain() {
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (true) {
+                    Map<String, Object> payload;
+                    boolean last;
+                    Throwable error;
+                    synchronized (this) {
+                        if (closed && pending == 0 && !finished.isDone()) {
+                            finished.complete(null);
+                        }
+                        error = terminated ? null : failure;
+                        if (error != null) {
+                            terminated = true;
+                            ready.clear();
+                        }
+                    }
+                    if (error != null) {
+                        subscriber.onError(error);
+                        break;
+                    }
+                    synchronized (this) {
+                        if (subscriber == null || terminated || ready.isEmpty() || demand == 0) {
+                            break;
+                        }
+                        payload = ready.poll();
+                        demand--;
+                        last = closed && pending == 0 && ready.isEmpty();
+                        payload.put("hasNext", !last);
+                        terminated = last;
+                    }
+                    subscriber.onNext(payload);
+                    if (last) {
+                        subscriber.onComplete();
+                        break;
+                    }
+                }
+            } while (work.decrementAndGet() != 0);
+        }
+    }
+}
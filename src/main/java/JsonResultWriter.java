@@ -0,0 +1,243 @@
+import graphql.ExecutionResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Writes execution results as JSON straight to a channel or stream, without building an intermediate string.
+ * Field and enum names of the schema are written from the bytes the wiring factory encoded when it was created,
+ * everything else is encoded into pooled direct buffers that are flushed whenever they fill up.
+ */
+public class JsonResultWriter {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private final Map<String, byte[]> encodedNames;
+    private final int bufferSize;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    public JsonResultWriter(ReflectionWiringFactory wiringFactory) {
+        this(wiringFactory, DEFAULT_BUFFER_SIZE);
+    }
+
+    public JsonResultWriter(ReflectionWiringFactory wiringFactory, int bufferSize) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Buffer size must be at least 16 bytes but was " + bufferSize);
+        }
+        this.encodedNames = wiringFactory.getEncodedNames();
+        this.bufferSize = bufferSize;
+    }
+
+    public void write(ExecutionResult result, OutputStream out) throws IOException {
+        write(result, Channels.newChannel(out));
+    }
+
+    public void write(ExecutionResult result, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+        try {
+            Output out = new Output(channel, buffer);
+            out.putMap(result.toSpecification());
+            out.flush();
+        } finally {
+            buffer.clear();
+            buffers.offer(buffer);
+        }
+    }
+
+    private final class Output {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+
+        Output(WritableByteChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        void putValue(Object value) throws IOException {
+            if (value == null) {
+                put(NULL);
+            } else if (value instanceof String) {
+                putString((String) value);
+            } else if (value instanceof Map) {
+                putMap((Map<?, ?>) value);
+            } else if (value instanceof List) {
+                putList((List<?>) value);
+            } else if (value instanceof Integer || value instanceof Long
+                    || value instanceof Short || value instanceof Byte) {
+                putLong(((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                double number = ((Number) value).doubleValue();
+                if (Double.isNaN(number) || Double.isInfinite(number)) {
+                    put(NULL);
+                } else {
+                    putAscii(value.toString());
+                }
+            } else if (value instanceof Number) {
+                putAscii(value.toString());
+            } else if (value instanceof Boolean) {
+                put((Boolean) value ? TRUE : FALSE);
+            } else {
+                putString(value.toString());
+            }
+        }
+
+        void putMap(Map<?, ?> map) throws IOException {
+            put((byte) '{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    put((byte) ',');
+                }
+                putString(String.valueOf(entry.getKey()));
+                put((byte) ':');
+                putValue(entry.getValue());
+                first = false;
+            }
+            put((byte) '}');
+        }
+
+        void putList(List<?> list) throws IOException {
+            put((byte) '[');
+            boolean first = true;
+            for (Object item : list) {
+                if (!first) {
+                    put((byte) ',');
+                }
+                putValue(item);
+                first = false;
+            }
+            put((byte) ']');
+        }
+
+        void putString(String value) throws IOException {
+            byte[] encoded = encodedNames.get(value);
+            if (encoded != null) {
+                put(encoded);
+                return;
+            }
+            put((byte) '"');
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    put((byte) '\\');
+                    put((byte) c);
+                } else if (c < 0x20) {
+                    putEscaped(c);
+                } else if (c < 0x80) {
+                    put((byte) c);
+                } else if (c < 0x800) {
+                    put((byte) (0xc0 | c >> 6));
+                    put((byte) (0x80 | c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    put((byte) (0xf0 | codePoint >> 18));
+                    put((byte) (0x80 | codePoint >> 12 & 0x3f));
+                    put((byte) (0x80 | codePoint >> 6 & 0x3f));
+                    put((byte) (0x80 | codePoint & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    putEscaped(c);
+                } else {
+                    put((byte) (0xe0 | c >> 12));
+                    put((byte) (0x80 | c >> 6 & 0x3f));
+                    put((byte) (0x80 | c & 0x3f));
+                }
+            }
+            put((byte) '"');
+        }
+
+        private void putEscaped(char c) throws IOException {
+            switch (c) {
+                case '\n':
+                    put((byte) '\\');
+                    put((byte) 'n');
+                    break;
+                case '\r':
+                    put((byte) '\\');
+                    put((byte) 'r');
+                    break;
+                case '\t':
+                    put((byte) '\\');
+                    put((byte) 't');
+                    break;
+                default:
+                    put((byte) '\\');
+                    put((byte) 'u');
+                    put(HEX[c >> 12 & 0xf]);
+                    put(HEX[c >> 8 & 0xf]);
+                    put(HEX[c >> 4 & 0xf]);
+                    put(HEX[c & 0xf]);
+            }
+        }
+
+        private void putLong(long value) throws IOException {
+            if (value == Long.MIN_VALUE) {
+                putAscii(Long.toString(value));
+                return;
+            }
+            if (value < 0) {
+                put((byte) '-');
+                value = -value;
+            }
+            long divisor = 1;
+            while (divisor <= value / 10) {
+                divisor *= 10;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                put((byte) ('0' + value / divisor % 10));
+            }
+        }
+
+        private void putAscii(String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                put((byte) value.charAt(i));
+            }
+        }
+
+        void put(byte b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(b);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,216 @@
+import graphql.schema.DataFetchingEnvironment;
+import resolver.Deadline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Collects the calls of a mutation field resolved by a batch method and performs them with one call of the method.
+ * Without a window every call is performed on its own, unless the calls are made while batches are held by a
+ * {@link BatchingMutationStrategy}, which performs consecutive calls of a field in one request together. With a
+ * window calls are collected for that long, from all requests, starting with the first call of a batch. Batches
+ * whose window passed are performed on the common {@link ForkJoinPool}, so slow batch methods don't hold up the
+ * windows of other fields.
+ * <p>
+ * Every call keeps the {@link Deadline} it was made with. Calls whose deadline passed while they waited for their
+ * batch fail without being performed, and the batch method runs with the earliest deadline of the others as
+ * {@link Deadline#current()}.
+ */
+final class MutationBatcher {
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "mutation-batches");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ThreadLocal<Set<MutationBatcher>> HELD = new ThreadLocal<>();
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Performs the calls of a batch in the order they were made and returns one result per call.
+     */
+    @FunctionalInterface
+    interface BatchMethod {
+        CompletionStage<List<?>> call(List<DataFetchingEnvironment> environments, List<List<Object>> arguments)
+                throws Exception;
+    }
+
+    private static final class Call {
+        private final DataFetchingEnvironment environment;
+        private final List<Object> arguments;
+        private final Deadline deadline = Deadline.current();
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Call(DataFetchingEnvironment environment, List<Object> arguments) {
+            this.environment = environment;
+            this.arguments = arguments;
+        }
+    }
+
+    private final String name;
+    private final Duration window;
+    private final int maximumSize;
+    private final BatchMethod method;
+    private final Function<TimeoutException, ? extends Exception> timeoutFailure;
+    private List<Call> calls = new ArrayList<>();
+    private ScheduledFuture<?> timer;
+
+    /**
+     * @param timeoutFailure turns the timeout of a call whose deadline passed into the failure of its result
+     */
+    MutationBatcher(String name, Duration window, int maximumSize, BatchMethod method,
+                    Function<TimeoutException, ? extends Exception> timeoutFailure) {
+        this.name = name;
+        this.window = window;
+        this.maximumSize = maximumSize;
+        this.method = method;
+        this.timeoutFailure = timeoutFailure;
+    }
+
+    /**
+     * Holds the batches of calls made by the current thread until {@link #release()}.
+     */
+    static void hold() {
+        HELD.set(new LinkedHashSet<>());
+    }
+
+    /**
+     * Performs the batches held by the current thread, except the ones waiting for their window to pass.
+     */
+    static void release() {
+        Set<MutationBatcher> held = HELD.get();
+        HELD.remove();
+        for (MutationBatcher batcher : held) {
+            if (batcher.window.isZero()) {
+                batcher.flush();
+            }
+        }
+    }
+
+    CompletableFuture<Object> add(DataFetchingEnvironment environment, List<Object> arguments) {
+        Call call = new Call(environment, arguments);
+        List<Call> full = null;
+        synchronized (this) {
+            calls.add(call);
+            if (calls.size() >= maximumSize) {
+                full = take();
+            } else if (calls.size() == 1 && !window.isZero()) {
+                List<Call> windowed = calls;
+                timer = TIMER.schedule(() -> ForkJoinPool.commonPool().execute(() -> flushWindow(windowed)),
+                        window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        Set<MutationBatcher> held = HELD.get();
+        if (full != null) {
+            perform(full);
+        } else if (window.isZero()) {
+            if (held != null) {
+                held.add(this);
+            } else {
+                flush();
+            }
+        }
+        return call.result;
+    }
+
+    void flush() {
+        List<Call> batch;
+        synchronized (this) {
+            batch = take();
+        }
+        if (!batch.isEmpty()) {
+            perform(batch);
+        }
+    }
+
+    private void flushWindow(List<Call> windowed) {
+        List<Call> batch;
+        synchronized (this) {
+            if (calls != windowed) {
+                // filled up and performed before its window passed
+                return;
+            }
+            batch = take();
+        }
+        perform(batch);
+    }
+
+    private List<Call> take() {
+        if (timer != null) {
+            // a no-op when the window passed, otherwise the batch filled up before it did
+            timer.cancel(false);
+            timer = null;
+        }
+        List<Call> batch = calls;
+        calls = new ArrayList<>();
+        return batch;
+    }
+
+    private void perform(List<Call> calls) {
+        List<Call> batch = new ArrayList<>(calls.size());
+        Deadline deadline = Deadline.NONE;
+        for (Call call : calls) {
+            if (call.deadline.isExpired()) {
+                call.result.completeExceptionally(timeoutFailure.apply(new TimeoutException(String.format(
+                        "Field '%s' exceeded its deadline before its batch was performed", name))));
+            } else {
+                batch.add(call);
+                deadline = deadline.min(call.deadline);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<DataFetchingEnvironment> environments = new ArrayList<>(batch.size());
+        List<List<Object>> arguments = new ArrayList<>();
+        for (Call call : batch) {
+            environments.add(call.environment);
+            for (int i = 0; i < call.arguments.size(); i++) {
+                if (arguments.size() == i) {
+                    arguments.add(new ArrayList<>(batch.size()));
+                }
+                arguments.get(i).add(call.arguments.get(i));
+            }
+        }
+        CompletionStage<List<?>> results;
+        try {
+            results = deadline.call(() -> {
+                try {
+                    return method.call(environments, arguments);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            batch.forEach(call -> call.result.completeExceptionally(e.getCause()));
+            return;
+        }
+        results.whenComplete((values, exception) -> {
+            if (exception == null && (values == null || values.size() != batch.size())) {
+                exception = new IllegalStateException(String.format("Batch method of '%s' returned %s results for %d calls",
+                        name, values == null ? "no" : String.valueOf(values.size()), batch.size()));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (exception != null) {
+                    batch.get(i).result.completeExceptionally(exception);
+                } else {
+                    batch.get(i).result.complete(values.get(i));
+                }
+            }
+        });
+    }
+}
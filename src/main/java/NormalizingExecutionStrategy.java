@@ -0,0 +1,97 @@
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.DataFetcherExceptionHandler;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionPath;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.SimpleDataFetcherExceptionHandler;
+import graphql.schema.GraphQLType;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits every object whose type has an id field configured with {@link ReflectionWiringFactory#setIdField} once,
+ * in the {@code entities} extension of the result keyed by {@code Type:id}, and replaces it in the data by
+ * {@code {"__ref": "Type:id"}}. Later occurrences of the same entity are only replaced when they completed to the
+ * same value, occurrences with a different selection stay inline. {@link Denormalizer} restores the original data.
+ */
+public class NormalizingExecutionStrategy extends AsyncExecutionStrategy {
+    public static final String ENTITIES = "entities";
+    public static final String REF = "__ref";
+
+    private final ReflectionWiringFactory wiringFactory;
+    private final Map<ExecutionContext, Map<String, Object>> entityTables = new ConcurrentHashMap<>();
+
+    public NormalizingExecutionStrategy(ReflectionWiringFactory wiringFactory) {
+        this(wiringFactory, new SimpleDataFetcherExceptionHandler());
+    }
+
+    public NormalizingExecutionStrategy(ReflectionWiringFactory wiringFactory,
+                                        DataFetcherExceptionHandler exceptionHandler) {
+        super(exceptionHandler);
+        this.wiringFactory = wiringFactory;
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext,
+                                                      ExecutionStrategyParameters parameters) {
+        if (parameters.path().equals(ExecutionPath.rootPath())) {
+            return executeRoot(executionContext, parameters);
+        }
+
+        GraphQLType type = parameters.typeInfo().getType();
+        Map<String, Object> entities = entityTables.get(executionContext);
+        Object id = entities == null ? null : idOf(type.getName(), parameters.source());
+        if (id == null) {
+            return super.execute(executionContext, parameters);
+        }
+
+        String key = type.getName() + ":" + id;
+        return super.execute(executionContext, parameters).thenApply(result -> {
+            Object data = result.getData();
+            if (data == null) {
+                return result;
+            }
+            Object entity = entities.putIfAbsent(key, data);
+            if (entity != null && !entity.equals(data)) {
+                return result;
+            }
+            return new ExecutionResultImpl(Collections.singletonMap(REF, key), result.getErrors());
+        });
+    }
+
+    private Object idOf(String typeName, Object source) {
+        try {
+            return wiringFactory.getId(typeName, source);
+        } catch (RuntimeException e) {
+            // the object's own fields report the failure, it is just not normalized
+            return null;
+        }
+    }
+
+    private CompletableFuture<ExecutionResult> executeRoot(ExecutionContext executionContext,
+                                                           ExecutionStrategyParameters parameters) {
+        Map<String, Object> entities = Collections.synchronizedMap(new LinkedHashMap<>());
+        entityTables.put(executionContext, entities);
+        CompletableFuture<ExecutionResult> result;
+        try {
+            result = super.execute(executionContext, parameters);
+        } catch (RuntimeException e) {
+            entityTables.remove(executionContext);
+            throw e;
+        }
+        return result.whenComplete((r, e) -> entityTables.remove(executionContext)).thenApply(r -> {
+            Map<Object, Object> extensions = new LinkedHashMap<>();
+            if (r.getExtensions() != null) {
+                extensions.putAll(r.getExtensions());
+            }
+            synchronized (entities) {
+                extensions.put(ENTITIES, new LinkedHashMap<>(entities));
+            }
+            return new ExecutionResultImpl(r.getData(), r.getErrors(), extensions);
+        });
+    }
+}
@@ -0,0 +1,55 @@
+import graphql.ErrorType;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorHelper;
+import graphql.language.SourceLocation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class PersistedQueryNotFoundError implements GraphQLError {
+    private final String hash;
+
+    public PersistedQueryNotFoundError(String hash) {
+        this.hash = hash;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    @Override
+    public String getMessage() {
+        return "PersistedQueryNotFound";
+    }
+
+    @Override
+    public List<SourceLocation> getLocations() {
+        return null;
+    }
+
+    @Override
+    public ErrorType getErrorType() {
+        return ErrorType.ValidationError;
+    }
+
+    @Override
+    public Map<String, Object> getExtensions() {
+        return Collections.singletonMap("classification", "PERSISTED_QUERY_NOT_FOUND");
+    }
+
+    @Override
+    public String toString() {
+        return "PersistedQueryNotFoundError{hash=" + hash + "}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return GraphqlErrorHelper.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return GraphqlErrorHelper.hashCode(this);
+    }
+}
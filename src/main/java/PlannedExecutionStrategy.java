@@ -0,0 +1,309 @@
+import graphql.ExecutionResult;
+import graphql.execution.*;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.introspection.Introspection;
+import graphql.language.*;
+import graphql.schema.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Resolves each operation once into a plan and reuses it for every later execution of the same document, which
+ * with a {@link DocumentCache} means every execution of a persisted or frequently repeated query. The plan keeps,
+ * per field and parent type, the field definition, its data fetcher and its argument values when they do not
+ * depend on variables, and per selection and object type the collected sub fields unless a directive depends on
+ * variables. Abstract types wired by the factory resolve to object types by Java class, so those resolutions are
+ * kept too.
+ */
+public class PlannedExecutionStrategy extends AsyncExecutionStrategy {
+    private final ReflectionWiringFactory wiringFactory;
+    private final Map<Document, OperationPlan> plans = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<ExecutionContext, OperationPlan> runningPlans = new ConcurrentHashMap<>();
+    private final Map<GraphQLType, Map<Class<?>, GraphQLObjectType>> typeTargets = new ConcurrentHashMap<>();
+
+    public PlannedExecutionStrategy(ReflectionWiringFactory wiringFactory) {
+        this(wiringFactory, new SimpleDataFetcherExceptionHandler());
+    }
+
+    public PlannedExecutionStrategy(ReflectionWiringFactory wiringFactory,
+                                    DataFetcherExceptionHandler exceptionHandler) {
+        super(exceptionHandler);
+        this.wiringFactory = wiringFactory;
+    }
+
+    public int getPlanCount() {
+        return plans.size();
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext,
+                                                      ExecutionStrategyParameters parameters) {
+        if (!parameters.path().equals(ExecutionPath.rootPath())) {
+            return super.execute(executionContext, parameters);
+        }
+        OperationPlan plan = plans.computeIfAbsent(executionContext.getDocument(), OperationPlan::new);
+        runningPlans.put(executionContext, plan);
+        try {
+            return super.execute(executionContext, parameters)
+                    .whenComplete((result, e) -> runningPlans.remove(executionContext));
+        } catch (RuntimeException e) {
+            runningPlans.remove(executionContext);
+            throw e;
+        }
+    }
+
+    @Override
+    protected GraphQLFieldDefinition getFieldDef(ExecutionContext executionContext,
+                                                 ExecutionStrategyParameters parameters, Field field) {
+        GraphQLObjectType parentType = parameters.typeInfo().castType(GraphQLObjectType.class);
+        return fieldPlan(executionContext, executionContext.getGraphQLSchema(), parentType, field).fieldDefinition;
+    }
+
+    @Override
+    protected CompletableFuture<Object> fetchField(ExecutionContext executionContext,
+                                                   ExecutionStrategyParameters parameters) {
+        Field field = parameters.field().get(0);
+        GraphQLObjectType parentType = parameters.typeInfo().castType(GraphQLObjectType.class);
+        FieldPlan fieldPlan = fieldPlan(executionContext, executionContext.getGraphQLSchema(), parentType, field);
+        GraphQLFieldDefinition fieldDef = fieldPlan.fieldDefinition;
+        Map<String, Object> argumentValues = fieldPlan.argumentValues(executionContext);
+        ExecutionTypeInfo fieldTypeInfo = fieldTypeInfo(parameters, fieldDef);
+        DataFetchingEnvironment environment = DataFetchingEnvironmentBuilder.newDataFetchingEnvironment(executionContext)
+                .source(parameters.source())
+                .arguments(argumentValues)
+                .fieldDefinition(fieldDef)
+                .fields(parameters.field())
+                .fieldType(fieldDef.getType())
+                .fieldTypeInfo(fieldTypeInfo)
+                .parentType(parentType)
+                .selectionSet(DataFetchingFieldSelectionSetImpl.newCollector(
+                        executionContext, fieldDef.getType(), parameters.field()))
+                .build();
+
+        Instrumentation instrumentation = executionContext.getInstrumentation();
+        InstrumentationFieldFetchParameters fetchParameters =
+                new InstrumentationFieldFetchParameters(executionContext, fieldDef, environment);
+        InstrumentationContext<Object> fetchContext = instrumentation.beginFieldFetch(fetchParameters);
+        DataFetcher<?> dataFetcher = instrumentation.instrumentDataFetcher(fieldPlan.dataFetcher, fetchParameters);
+
+        CompletableFuture<Object> fetchedValue;
+        try {
+            fetchedValue = Async.toCompletableFuture(dataFetcher.get(environment));
+        } catch (Exception e) {
+            fetchedValue = new CompletableFuture<>();
+            fetchedValue.completeExceptionally(e);
+        }
+        return fetchedValue.handle((result, exception) -> {
+            fetchContext.onEnd(result, exception);
+            if (exception != null) {
+                dataFetcherExceptionHandler.accept(DataFetcherExceptionHandlerParameters.newExceptionParameters()
+                        .executionContext(executionContext)
+                        .dataFetchingEnvironment(environment)
+                        .argumentValues(argumentValues)
+                        .field(field)
+                        .fieldDefinition(fieldDef)
+                        .path(parameters.path())
+                        .exception(exception)
+                        .build());
+                return null;
+            }
+            return result;
+        });
+    }
+
+    @Override
+    protected CompletableFuture<ExecutionResult> completeField(ExecutionContext executionContext,
+                                                               ExecutionStrategyParameters parameters,
+                                                               Object fetchedValue) {
+        Field field = parameters.field().get(0);
+        GraphQLObjectType parentType = parameters.typeInfo().castType(GraphQLObjectType.class);
+        FieldPlan fieldPlan = fieldPlan(executionContext, executionContext.getGraphQLSchema(), parentType, field);
+        ExecutionTypeInfo fieldTypeInfo = fieldTypeInfo(parameters, fieldPlan.fieldDefinition);
+        InstrumentationContext<CompletableFuture<ExecutionResult>> completeContext = executionContext
+                .getInstrumentation()
+                .beginCompleteField(new InstrumentationFieldCompleteParameters(
+                        executionContext, parameters, fieldPlan.fieldDefinition, fieldTypeInfo));
+
+        ExecutionStrategyParameters newParameters = ExecutionStrategyParameters.newParameters()
+                .typeInfo(fieldTypeInfo)
+                .field(parameters.field())
+                .fields(parameters.fields())
+                .arguments(fieldPlan.argumentValues(executionContext))
+                .source(fetchedValue)
+                .nonNullFieldValidator(new NonNullableFieldValidator(executionContext, fieldTypeInfo))
+                .path(parameters.path())
+                .build();
+        CompletableFuture<ExecutionResult> result = completeValue(executionContext, newParameters);
+        completeContext.onEnd(result, null);
+        return result;
+    }
+
+    @Override
+    protected CompletableFuture<ExecutionResult> completeValue(ExecutionContext executionContext,
+                                                               ExecutionStrategyParameters parameters) {
+        ExecutionTypeInfo typeInfo = parameters.typeInfo();
+        Object source = unboxPossibleOptional(parameters.source());
+        GraphQLType fieldType = typeInfo.getType();
+        OperationPlan plan = runningPlans.get(executionContext);
+        if (source == null || plan == null || !plan.selectionsCacheable
+                || !(fieldType instanceof GraphQLObjectType || fieldType instanceof GraphQLInterfaceType
+                || fieldType instanceof GraphQLUnionType)) {
+            return super.completeValue(executionContext, parameters);
+        }
+
+        GraphQLObjectType resolvedType = resolveType(executionContext, parameters, fieldType);
+        Map<String, List<Field>> subFields = plan.subFields(parameters.field(), resolvedType, () ->
+                fieldCollector.collectFields(FieldCollectorParameters.newParameters()
+                        .schema(executionContext.getGraphQLSchema())
+                        .objectType(resolvedType)
+                        .fragments(executionContext.getFragmentsByName())
+                        .variables(executionContext.getVariables())
+                        .build(), parameters.field()));
+        ExecutionTypeInfo newTypeInfo = typeInfo.treatAs(resolvedType);
+        ExecutionStrategyParameters newParameters = ExecutionStrategyParameters.newParameters()
+                .typeInfo(newTypeInfo)
+                .fields(subFields)
+                .nonNullFieldValidator(new NonNullableFieldValidator(executionContext, newTypeInfo))
+                .path(parameters.path())
+                .source(source)
+                .build();
+        return executionContext.getQueryStrategy().execute(executionContext, newParameters);
+    }
+
+    @Override
+    protected GraphQLObjectType resolveType(ExecutionContext executionContext, ExecutionStrategyParameters parameters,
+                                            GraphQLType fieldType) {
+        if (fieldType instanceof GraphQLObjectType || !wiringFactory.resolvesTypeByClass(fieldType.getName())) {
+            return super.resolveType(executionContext, parameters, fieldType);
+        }
+        Object source = unboxPossibleOptional(parameters.source());
+        Map<Class<?>, GraphQLObjectType> targets =
+                typeTargets.computeIfAbsent(fieldType, t -> new ConcurrentHashMap<>());
+        GraphQLObjectType resolvedType = targets.get(source.getClass());
+        if (resolvedType == null) {
+            resolvedType = super.resolveType(executionContext, parameters, fieldType);
+            targets.put(source.getClass(), resolvedType);
+        }
+        return resolvedType;
+    }
+
+    private FieldPlan fieldPlan(ExecutionContext executionContext, GraphQLSchema schema,
+                                GraphQLObjectType parentType, Field field) {
+        OperationPlan plan = runningPlans.get(executionContext);
+        if (plan == null) {
+            return new FieldPlan(schema, parentType, field);
+        }
+        return plan.fields
+                .computeIfAbsent(parentType, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(field, f -> new FieldPlan(schema, parentType, f));
+    }
+
+    private final class OperationPlan {
+        private final boolean selectionsCacheable;
+        private final Map<GraphQLObjectType, Map<Field, FieldPlan>> fields = new ConcurrentHashMap<>();
+        private final Map<FieldsKey, Map<GraphQLObjectType, Map<String, List<Field>>>> selections =
+                new ConcurrentHashMap<>();
+
+        OperationPlan(Document document) {
+            selectionsCacheable = !hasVariableDirective(document);
+        }
+
+        Map<String, List<Field>> subFields(List<Field> fields, GraphQLObjectType objectType,
+                                           Supplier<Map<String, List<Field>>> collect) {
+            return selections
+                    .computeIfAbsent(new FieldsKey(fields), k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(objectType, t -> collect.get());
+        }
+
+        private boolean hasVariableDirective(Node node) {
+            if (node instanceof Directive) {
+                return containsVariable(node);
+            }
+            for (Node child : node.getChildren()) {
+                if (hasVariableDirective(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final class FieldPlan {
+        private final GraphQLFieldDefinition fieldDefinition;
+        private final DataFetcher<?> dataFetcher;
+        private final Field field;
+        private final Map<String, Object> constantArguments;
+
+        FieldPlan(GraphQLSchema schema, GraphQLObjectType parentType, Field field) {
+            this.fieldDefinition = Introspection.getFieldDef(schema, parentType, field.getName());
+            this.dataFetcher = fieldDefinition.getDataFetcher();
+            this.field = field;
+            this.constantArguments = field.getArguments().stream().anyMatch(PlannedExecutionStrategy::containsVariable)
+                    ? null
+                    : valuesResolver.getArgumentValues(fieldDefinition.getArguments(), field.getArguments(),
+                            Collections.emptyMap());
+        }
+
+        Map<String, Object> argumentValues(ExecutionContext executionContext) {
+            if (constantArguments != null) {
+                return constantArguments;
+            }
+            return valuesResolver.getArgumentValues(fieldDefinition.getArguments(), field.getArguments(),
+                    executionContext.getVariables());
+        }
+    }
+
+    private static final class FieldsKey {
+        private final List<Field> fields;
+        private final int hashCode;
+
+        FieldsKey(List<Field> fields) {
+            this.fields = fields;
+            int hash = 1;
+            for (Field field : fields) {
+                hash = 31 * hash + System.identityHashCode(field);
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FieldsKey)) {
+                return false;
+            }
+            List<Field> other = ((FieldsKey) o).fields;
+            if (other.size() != fields.size()) {
+                return false;
+            }
+            for (int i = 0; i < fields.size(); i++) {
+                if (other.get(i) != fields.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static boolean containsVariable(Node node) {
+        if (node instanceof VariableReference) {
+            return true;
+        }
+        for (Node child : node.getChildren()) {
+            if (containsVariable(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
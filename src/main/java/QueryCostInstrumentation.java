@@ -0,0 +1,153 @@
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.analysis.QueryTraversal;
+import graphql.analysis.QueryVisitorEnvironment;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.NoOpInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Document;
+import graphql.schema.*;
+import resolver.Cost;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Scores every operation before it executes and aborts the ones costing more than a maximum. A field costs what the
+ * {@link Cost} annotation on its fetch method declares, otherwise one if it returns objects and nothing if it returns
+ * scalars. The cost of a field's selections is multiplied by the annotated multipliers, or by a default list size for
+ * list fields without any. Operations are scored with the variables of each request, so documents taken from a
+ * {@link DocumentCache} are scored again every time. The cost of an executed operation is reported in the
+ * {@value #COST} extension of its result, which is where rate limiting can pick it up.
+ */
+public class QueryCostInstrumentation extends NoOpInstrumentation {
+    public static final String COST = "cost";
+    public static final int DEFAULT_LIST_SIZE = 10;
+
+    private final ReflectionWiringFactory wiringFactory;
+    private final long maximumCost;
+    private final int defaultListSize;
+
+    public QueryCostInstrumentation(ReflectionWiringFactory wiringFactory, long maximumCost) {
+        this(wiringFactory, maximumCost, DEFAULT_LIST_SIZE);
+    }
+
+    public QueryCostInstrumentation(ReflectionWiringFactory wiringFactory, long maximumCost, int defaultListSize) {
+        if (maximumCost < 0) {
+            throw new IllegalArgumentException("Maximum cost must not be negative but was " + maximumCost);
+        }
+        if (defaultListSize < 0) {
+            throw new IllegalArgumentException("Default list size must not be negative but was " + defaultListSize);
+        }
+        this.wiringFactory = wiringFactory;
+        this.maximumCost = maximumCost;
+        this.defaultListSize = defaultListSize;
+    }
+
+    public long getMaximumCost() {
+        return maximumCost;
+    }
+
+    @Override
+    public InstrumentationState createState() {
+        return new CostState();
+    }
+
+    @Override
+    public ExecutionContext instrumentExecutionContext(ExecutionContext executionContext,
+                                                       InstrumentationExecutionParameters parameters) {
+        long cost = calculateCost(executionContext.getGraphQLSchema(), executionContext.getDocument(),
+                executionContext.getOperationDefinition().getName(), executionContext.getVariables());
+        if (cost > maximumCost) {
+            throw new AbortExecutionException(
+                    String.format("Query cost %d exceeds the maximum of %d", cost, maximumCost));
+        }
+        CostState state = parameters.getInstrumentationState();
+        state.cost = cost;
+        return executionContext;
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult,
+                                                                        InstrumentationExecutionParameters parameters) {
+        CostState state = parameters.getInstrumentationState();
+        if (state.cost < 0) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+        Map<Object, Object> extensions = new LinkedHashMap<>();
+        if (executionResult.getExtensions() != null) {
+            extensions.putAll(executionResult.getExtensions());
+        }
+        extensions.put(COST, state.cost);
+        return CompletableFuture.completedFuture(
+                new ExecutionResultImpl(executionResult.getData(), executionResult.getErrors(), extensions));
+    }
+
+    public long calculateCost(GraphQLSchema schema, Document document, String operationName,
+                              Map<String, Object> variables) {
+        // costs of the fields selected below each field, the top level fields are collected under null
+        Map<QueryVisitorEnvironment, Long> selectionCosts = new HashMap<>();
+        new QueryTraversal(schema, document, operationName, variables).visitPostOrder(env -> {
+            QueryVisitorEnvironment asParent = new QueryVisitorEnvironment(env.getField(), env.getFieldDefinition(),
+                    env.getParentType(), env.getParentEnvironment(), env.getArguments());
+            long cost = fieldCost(env, selectionCosts.getOrDefault(asParent, 0L));
+            selectionCosts.merge(env.getParentEnvironment(), cost, QueryCostInstrumentation::add);
+        });
+        return selectionCosts.getOrDefault(null, 0L);
+    }
+
+    private long fieldCost(QueryVisitorEnvironment env, long selectionCost) {
+        GraphQLFieldDefinition fieldDef = env.getFieldDefinition();
+        if (fieldDef.getName().startsWith("__")) {
+            // introspection is bounded by the size of the schema
+            return 0;
+        }
+        GraphQLType type = fieldDef.getType();
+        if (type instanceof GraphQLNonNull) {
+            type = ((GraphQLNonNull) type).getWrappedType();
+        }
+        boolean isList = type instanceof GraphQLList;
+        while (type instanceof GraphQLModifiedType) {
+            type = ((GraphQLModifiedType) type).getWrappedType();
+        }
+
+        Cost cost = wiringFactory.getCost(env.getParentType().getName(), fieldDef.getName());
+        if (cost == null) {
+            long ownCost = type instanceof GraphQLCompositeType ? 1 : 0;
+            return add(ownCost, multiply(isList ? defaultListSize : 1, selectionCost));
+        }
+        long multiplier = cost.multipliers().length == 0 && isList ? defaultListSize : 1;
+        for (String argumentName : cost.multipliers()) {
+            multiplier = multiply(multiplier, argumentSize(env.getArguments().get(argumentName), isList));
+        }
+        return add(cost.value(), multiply(multiplier, selectionCost));
+    }
+
+    /**
+     * Returns the size of a multiplier argument, an omitted or null argument is charged like a list without
+     * multipliers, since resolvers usually fall back to returning everything.
+     */
+    private long argumentSize(Object argument, boolean isList) {
+        if (argument instanceof Collection) {
+            return ((Collection<?>) argument).size();
+        } else if (argument instanceof Number) {
+            return Math.max(((Number) argument).longValue(), 0);
+        }
+        return isList ? defaultListSize : 1;
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        return a != 0 && b > Long.MAX_VALUE / a ? Long.MAX_VALUE : a * b;
+    }
+
+    private static class CostState implements InstrumentationState {
+        private volatile long cost = -1;
+    }
+}
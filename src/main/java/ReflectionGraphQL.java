@@ -0,0 +1,476 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQL;
+import graphql.execution.ExecutionStrategy;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLDirective;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.dataloader.DataLoaderRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+
+/**
+ * Wires a schema with a {@link ReflectionWiringFactory} and executes queries against it, keeping parsed and
+ * validated documents in a {@link DocumentCache}. Queries can be registered up front and then executed by their
+ * SHA-256 hash, registered query strings are reused as cache keys so their hash code is only computed once. Only
+ * the most recently used registered queries are kept, see {@link Builder#persistedQueryCacheSize(int)}, a query
+ * that was dropped reports a {@link PersistedQueryNotFoundError} until it is registered again.
+ * The schema can be rewired while queries run, see {@link #rewire(TypeDefinitionRegistry, Collection)}.
+ * <p>
+ * A warm-up can be configured to run in the background once the schema is wired. It initializes all resolver
+ * classes and executes recorded queries until their fetchers are compiled, and the instance only reports itself
+ * ready after that, see {@link #isReady()}. The queries run on a thread of their own through the instance's own data
+ * fetchers, but with a document cache and instrumentations of their own, leaving out the one configured with
+ * {@link Builder#instrumentation(Instrumentation)}. Only query operations can be recorded, and while the warm-up
+ * runs resolvers are called without their bulkheads and their failures are not counted.
+ * <p>
+ * Every schema accepts the {@code @defer} and {@code @stream} directives. They take effect with an
+ * {@link IncrementalExecutionStrategy} as the query execution strategy and are ignored otherwise.
+ */
+public class ReflectionGraphQL {
+    private final Builder builder;
+    private final Map<String, String> persistedQueries;
+    private volatile Wiring wiring;
+    private final CompletableFuture<Void> readiness;
+
+    private ReflectionGraphQL(Builder builder) {
+        this.builder = builder;
+        this.persistedQueries = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > builder.persistedQueryCacheSize;
+            }
+        };
+        wiring = wire(builder.registry, builder.wiringFactory.apply(builder.wiringMode));
+        readiness = builder.warmUpInputs == null
+                ? CompletableFuture.completedFuture(null)
+                : warmUpInBackground();
+    }
+
+    /**
+     * Everything built from one version of the schema. Executions read the current wiring once and finish on it,
+     * even when it is replaced while they run.
+     */
+    private static final class Wiring {
+        private final TypeDefinitionRegistry registry;
+        private final ReflectionWiringFactory wiringFactory;
+        private final GraphQLSchema schema;
+        private final DocumentCache documentCache;
+        private final Instrumentation instrumentation;
+        private final GraphQL graphQL;
+
+        private Wiring(TypeDefinitionRegistry registry, ReflectionWiringFactory wiringFactory, GraphQLSchema schema,
+                       DocumentCache documentCache, Instrumentation instrumentation, GraphQL graphQL) {
+            this.registry = registry;
+            this.wiringFactory = wiringFactory;
+            this.schema = schema;
+            this.documentCache = documentCache;
+            this.instrumentation = instrumentation;
+            this.graphQL = graphQL;
+        }
+    }
+
+    private Wiring wire(TypeDefinitionRegistry registry, ReflectionWiringFactory wiringFactory) {
+        if (!wiringFactory.getErrors().isEmpty()) {
+            throw new IllegalStateException("Unable to wire schema: " + wiringFactory.getErrors());
+        }
+        RuntimeWiring runtimeWiring = newRuntimeWiring().wiringFactory(wiringFactory).build();
+        GraphQLSchema generatedSchema = new SchemaGenerator().makeExecutableSchema(registry, runtimeWiring);
+        if (!wiringFactory.getErrors().isEmpty()) {
+            // types wired lazily are only verified while the schema is generated
+            throw new IllegalStateException("Unable to wire schema: " + wiringFactory.getErrors());
+        }
+        // queries may ask for incremental delivery, strategies that don't support it complete the fields inline
+        Set<GraphQLDirective> directives = new LinkedHashSet<>(generatedSchema.getDirectives());
+        directives.addAll(IncrementalExecutionStrategy.DIRECTIVES);
+        GraphQLSchema schema = generatedSchema.transform(schemaBuilder -> schemaBuilder.additionalDirectives(directives));
+        // documents are validated against a schema, so every schema gets a cache of its own
+        DocumentCache documentCache = new DocumentCache(builder.documentCacheSize);
+        Instrumentation instrumentation = instrumentation(wiringFactory, builder.instrumentation);
+        GraphQL graphQL = graphQL(schema, wiringFactory, documentCache, instrumentation);
+        return new Wiring(registry, wiringFactory, schema, documentCache, instrumentation, graphQL);
+    }
+
+    private GraphQL graphQL(GraphQLSchema schema, ReflectionWiringFactory wiringFactory, DocumentCache documentCache,
+                            Instrumentation instrumentation) {
+        GraphQL.Builder graphQLBuilder = GraphQL.newGraphQL(schema).preparsedDocumentProvider(documentCache);
+        if (builder.queryExecutionStrategy != null) {
+            graphQLBuilder.queryExecutionStrategy(builder.queryExecutionStrategy.apply(wiringFactory));
+        }
+        graphQLBuilder.mutationExecutionStrategy(builder.mutationExecutionStrategy != null
+                ? builder.mutationExecutionStrategy.apply(wiringFactory)
+                : new BatchingMutationStrategy(wiringFactory));
+        graphQLBuilder.subscriptionExecutionStrategy(builder.subscriptionExecutionStrategy != null
+                ? builder.subscriptionExecutionStrategy.apply(wiringFactory)
+                : new EventStreamExecutionStrategy());
+        return graphQLBuilder.instrumentation(instrumentation).build();
+    }
+
+    /**
+     * Builds the instrumentations for a wired schema, every GraphQL gets instrumentations of its own, so executions
+     * of different instances never share instrumentation state.
+     */
+    private Instrumentation instrumentation(ReflectionWiringFactory wiringFactory, Instrumentation instrumentation) {
+        List<Instrumentation> instrumentations = new ArrayList<>();
+        if (builder.maximumQueryCost != null) {
+            instrumentations.add(new QueryCostInstrumentation(wiringFactory, builder.maximumQueryCost));
+        }
+        // always installed, timeouts can be set on the wiring factory at any time
+        instrumentations.add(new DeadlineInstrumentation(
+                wiringFactory, builder.executionTimeout, builder.defaultFieldTimeout));
+        if (builder.resultLimits != null) {
+            ResultLimitInstrumentation limits = builder.resultLimits;
+            instrumentations.add(new ResultLimitInstrumentation(
+                    limits.getMaximumNodes(), limits.getMaximumListLength(), limits.getMaximumBytes()));
+        }
+        if (instrumentation != null) {
+            instrumentations.add(instrumentation);
+        }
+        return instrumentations.size() == 1 ? instrumentations.get(0) : new ChainedInstrumentation(instrumentations);
+    }
+
+    private CompletableFuture<Void> warmUpInBackground() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "graphql-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<Void> warmedUp = CompletableFuture.runAsync(
+                () -> warmUp(builder.warmUpInputs, builder.warmUpIterations), executor);
+        warmedUp.whenComplete((result, exception) -> executor.shutdown());
+        return warmedUp;
+    }
+
+    private void warmUp(List<ExecutionInput> executionInputs, int iterations) {
+        for (Class<?> javaClass : wiring.wiringFactory.getResolverClasses()) {
+            try {
+                Class.forName(javaClass.getName(), true, javaClass.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        // the live fetchers, so the code that gets compiled is the code that serves, but not its document cache
+        Wiring live = wiring;
+        GraphQL graphQL = graphQL(live.schema, live.wiringFactory, new DocumentCache(builder.documentCacheSize),
+                instrumentation(live.wiringFactory, null));
+        live.wiringFactory.setWarmingUp(true);
+        try {
+            for (int i = 0; i < iterations; i++) {
+                for (ExecutionInput executionInput : executionInputs) {
+                    // results are thrown away, errors of recorded queries are as good a warm-up as their data
+                    graphQL.execute(executionInput);
+                }
+            }
+        } finally {
+            live.wiringFactory.setWarmingUp(false);
+        }
+    }
+
+    /**
+     * Returns whether the warm-up has finished, always true when none was configured. A warm-up that failed
+     * leaves the instance not ready, {@link #getReadiness()} tells why.
+     */
+    public boolean isReady() {
+        return readiness.isDone() && !readiness.isCompletedExceptionally();
+    }
+
+    public CompletableFuture<Void> getReadiness() {
+        return readiness;
+    }
+
+    /**
+     * Writes the resolver classes in the format of a class list for application class data sharing
+     * ({@code -XX:SharedClassListFile}), one internal class name per line. Classes of graphql-java and the JDK are
+     * not included, append the list dumped by {@code -XX:DumpLoadedClassList} for those.
+     */
+    public void writeClassList(Path classList) throws IOException {
+        List<String> names = wiring.wiringFactory.getResolverClasses().stream()
+                .map(javaClass -> javaClass.getName().replace('.', '/'))
+                .collect(Collectors.toList());
+        Files.write(classList, names, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rewires the schema after its definition or some of its classes changed, see
+     * {@link ReflectionWiringFactory#rewire(TypeDefinitionRegistry, Collection)}, and swaps in the new schema at
+     * once. Executions already running finish on the previous schema. When the changes cannot be wired an
+     * {@link IllegalStateException} is thrown and the previous schema stays in place.
+     */
+    public synchronized void rewire(TypeDefinitionRegistry registry, Collection<Class<?>> changedClasses) {
+        wiring = wire(registry, wiring.wiringFactory.rewire(registry, changedClasses));
+    }
+
+    public static Builder newReflectionGraphQL(TypeDefinitionRegistry registry, String packageName) {
+        return new Builder(registry, mode -> new ReflectionWiringFactory(registry, packageName, mode));
+    }
+
+    public static Builder newReflectionGraphQL(TypeDefinitionRegistry registry, Collection<Class<?>> classes) {
+        return new Builder(registry, mode -> new ReflectionWiringFactory(registry, classes, mode));
+    }
+
+    public TypeDefinitionRegistry getRegistry() {
+        return wiring.registry;
+    }
+
+    public ReflectionWiringFactory getWiringFactory() {
+        return wiring.wiringFactory;
+    }
+
+    public GraphQLSchema getSchema() {
+        return wiring.schema;
+    }
+
+    public DocumentCache getDocumentCache() {
+        return wiring.documentCache;
+    }
+
+    public ExecutionResult execute(String query) {
+        return wiring.graphQL.execute(ExecutionInput.newExecutionInput().query(query).build());
+    }
+
+    public ExecutionResult execute(ExecutionInput executionInput) {
+        return wiring.graphQL.execute(executionInput);
+    }
+
+    public CompletableFuture<ExecutionResult> executeAsync(ExecutionInput executionInput) {
+        return wiring.graphQL.executeAsync(executionInput);
+    }
+
+    /**
+     * Executes all operations concurrently against one registry and completes with their results in order. The
+     * registry's loaders are dispatched whenever nothing that could queue more loads is running: no operation is
+     * being started, no value a fetcher waits for is being completed and no batch is loading. Loads from all
+     * operations therefore end up in the same batches level by level, and each loader's cache memoizes values across
+     * the whole batch. Fetchers have to queue their loads while they are called or while a value they wait for
+     * completes, and batch loaders that load from the same registry while they are called; a load queued later from a
+     * thread of its own has to be dispatched by whoever queued it. Create a fresh registry for every batch and make it
+     * reachable from the contexts of the inputs.
+     */
+    public CompletableFuture<List<ExecutionResult>> executeBatchAsync(List<ExecutionInput> executionInputs,
+                                                                      DataLoaderRegistry registry) {
+        Wiring current = wiring;
+        BatchLoadDispatcher dispatcher = new BatchLoadDispatcher(registry);
+        GraphQL graphQL = current.graphQL.transform(graphQLBuilder -> graphQLBuilder.instrumentation(
+                new ChainedInstrumentation(Arrays.asList(current.instrumentation, dispatcher))));
+        List<CompletableFuture<ExecutionResult>> futures = new ArrayList<>(executionInputs.size());
+        dispatcher.begin();
+        try {
+            for (ExecutionInput executionInput : executionInputs) {
+                futures.add(graphQL.executeAsync(executionInput));
+            }
+        } finally {
+            dispatcher.end();
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(all -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    /**
+     * Executes a batch and waits for its results, see {@link #executeBatchAsync(List, DataLoaderRegistry)}.
+     */
+    public List<ExecutionResult> executeBatch(List<ExecutionInput> executionInputs, DataLoaderRegistry registry) {
+        return executeBatchAsync(executionInputs, registry).join();
+    }
+
+    public String registerPersistedQuery(String query) {
+        String hash = sha256(query);
+        synchronized (persistedQueries) {
+            persistedQueries.putIfAbsent(hash, query);
+        }
+        return hash;
+    }
+
+    public ExecutionResult executePersisted(String hash, ExecutionInput.Builder executionInput) {
+        return executePersistedAsync(hash, executionInput).join();
+    }
+
+    public CompletableFuture<ExecutionResult> executePersistedAsync(String hash, ExecutionInput.Builder executionInput) {
+        String query;
+        synchronized (persistedQueries) {
+            query = persistedQueries.get(hash);
+        }
+        if (query == null) {
+            return CompletableFuture.completedFuture(
+                    new ExecutionResultImpl(Collections.singletonList(new PersistedQueryNotFoundError(hash))));
+        }
+        return wiring.graphQL.executeAsync(executionInput.query(query).build());
+    }
+
+    static String sha256(String query) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(Character.forDigit(b >> 4 & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Builder {
+        private final TypeDefinitionRegistry registry;
+        private final Function<ReflectionWiringFactory.Mode, ReflectionWiringFactory> wiringFactory;
+        private ReflectionWiringFactory.Mode wiringMode = ReflectionWiringFactory.Mode.EAGER;
+        private int documentCacheSize = 1000;
+        private int persistedQueryCacheSize = 1000;
+        private Function<ReflectionWiringFactory, ExecutionStrategy> queryExecutionStrategy;
+        private Function<ReflectionWiringFactory, ExecutionStrategy> mutationExecutionStrategy;
+        private Function<ReflectionWiringFactory, ExecutionStrategy> subscriptionExecutionStrategy;
+        private Instrumentation instrumentation;
+        private Long maximumQueryCost;
+        private ResultLimitInstrumentation resultLimits;
+        private Duration executionTimeout;
+        private Duration defaultFieldTimeout;
+        private List<ExecutionInput> warmUpInputs;
+        private int warmUpIterations;
+
+        private Builder(TypeDefinitionRegistry registry,
+                        Function<ReflectionWiringFactory.Mode, ReflectionWiringFactory> wiringFactory) {
+            this.registry = registry;
+            this.wiringFactory = wiringFactory;
+        }
+
+        public Builder wiringMode(ReflectionWiringFactory.Mode wiringMode) {
+            this.wiringMode = wiringMode;
+            return this;
+        }
+
+        public Builder documentCacheSize(int documentCacheSize) {
+            this.documentCacheSize = documentCacheSize;
+            return this;
+        }
+
+        /**
+         * Bounds the registered persisted queries, the least recently registered or executed ones are dropped
+         * beyond the maximum.
+         */
+        public Builder persistedQueryCacheSize(int persistedQueryCacheSize) {
+            if (persistedQueryCacheSize < 1) {
+                throw new IllegalArgumentException("Maximum size must be positive but was " + persistedQueryCacheSize);
+            }
+            this.persistedQueryCacheSize = persistedQueryCacheSize;
+            return this;
+        }
+
+        public Builder queryExecutionStrategy(
+                Function<ReflectionWiringFactory, ExecutionStrategy> queryExecutionStrategy) {
+            this.queryExecutionStrategy = queryExecutionStrategy;
+            return this;
+        }
+
+        /**
+         * Replaces the {@link BatchingMutationStrategy} mutations are executed with by default.
+         */
+        public Builder mutationExecutionStrategy(
+                Function<ReflectionWiringFactory, ExecutionStrategy> mutationExecutionStrategy) {
+            this.mutationExecutionStrategy = mutationExecutionStrategy;
+            return this;
+        }
+
+        /**
+         * Replaces the {@link EventStreamExecutionStrategy} subscriptions are executed with by default.
+         */
+        public Builder subscriptionExecutionStrategy(
+                Function<ReflectionWiringFactory, ExecutionStrategy> subscriptionExecutionStrategy) {
+            this.subscriptionExecutionStrategy = subscriptionExecutionStrategy;
+            return this;
+        }
+
+        public Builder instrumentation(Instrumentation instrumentation) {
+            this.instrumentation = instrumentation;
+            return this;
+        }
+
+        /**
+         * Rejects operations whose cost, as computed by a {@link QueryCostInstrumentation}, exceeds the maximum.
+         */
+        public Builder maximumQueryCost(long maximumQueryCost) {
+            this.maximumQueryCost = maximumQueryCost;
+            return this;
+        }
+
+        /**
+         * Aborts executions whose results grow beyond the given limits, see {@link ResultLimitInstrumentation}.
+         */
+        public Builder resultLimits(long maximumNodes, int maximumListLength, long maximumBytes) {
+            this.resultLimits = new ResultLimitInstrumentation(maximumNodes, maximumListLength, maximumBytes);
+            return this;
+        }
+
+        /**
+         * Bounds every execution, and fields without a timeout of their own, see {@link DeadlineInstrumentation}.
+         * Either timeout may be null.
+         */
+        public Builder timeouts(Duration executionTimeout, Duration defaultFieldTimeout) {
+            this.executionTimeout = executionTimeout;
+            this.defaultFieldTimeout = defaultFieldTimeout;
+            return this;
+        }
+
+        /**
+         * Warms up the instance in the background once it is built, executing each recorded input the given number
+         * of times. A few thousand iterations get the fetchers on their paths compiled. Inputs that may run a
+         * mutation or a subscription are rejected, the warm-up would perform them for real.
+         */
+        public Builder warmUp(List<ExecutionInput> recordedInputs, int iterations) {
+            if (iterations < 1) {
+                throw new IllegalArgumentException("Iterations must be positive but was " + iterations);
+            }
+            for (ExecutionInput recordedInput : recordedInputs) {
+                if (!isQuery(recordedInput)) {
+                    throw new IllegalArgumentException("Only queries can be warmed up but got: "
+                            + recordedInput.getQuery());
+                }
+            }
+            this.warmUpInputs = new ArrayList<>(recordedInputs);
+            this.warmUpIterations = iterations;
+            return this;
+        }
+
+        /**
+         * Returns whether the input can only run a query. Documents that don't parse can't run anything.
+         */
+        private static boolean isQuery(ExecutionInput executionInput) {
+            Document document;
+            try {
+                document = new Parser().parseDocument(executionInput.getQuery());
+            } catch (RuntimeException e) {
+                return true;
+            }
+            return document.getDefinitions().stream()
+                    .filter(definition -> definition instanceof OperationDefinition)
+                    .map(definition -> (OperationDefinition) definition)
+                    .filter(operation -> executionInput.getOperationName() == null
+                            || executionInput.getOperationName().equals(operation.getName()))
+                    .allMatch(operation -> operation.getOperation() == OperationDefinition.Operation.QUERY);
+        }
+
+        public ReflectionGraphQL build() {
+            return new ReflectionGraphQL(this);
+        }
+    }
+}
@@ -5,60 +5,420 @@ import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.TypeResolver;
 import graphql.schema.idl.*;
-
+import org.reactivestreams.Publisher;
+import resolver.BatchWindow;
+import resolver.ConcurrencyLimit;
+import resolver.Cost;
+import resolver.Cursor;
+import resolver.Timeout;
+
+import java.lang.invoke.*;
 import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class ReflectionWiringFactory implements WiringFactory {
 
-    private final List<String> errors = new ArrayList<>();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private final ThreadLocal<List<String>> errorSink = new ThreadLocal<>();
+    private final Mode mode;
+    private final Map<String, TypeDefinition> typeDefinitions = new HashMap<>();
+    private final Map<String, ObjectTypeDefinition> pendingTypes = new ConcurrentHashMap<>();
     private final Map<String, Set<Class<?>>> scalarTypeMap = new HashMap<>();
     private final Map<String, Class<?>> objectTypeMap = new HashMap<>();
     private final Map<String, Class<?>> inputObjectTypeMap = new HashMap<>();
     private final Map<String, Class<?>> enumTypeMap = new HashMap<>();
     private final Map<String, Class<?>> interfaceTypeMap = new HashMap<>();
     private final Map<String, Set<String>> interfacesImplemented = new HashMap<>();
-    private final Map<String, Map<String, Method>> resolverMap = new HashMap<>();
+    private final Set<String> mutationTypeNames = new HashSet<>();
+    private final Set<String> subscriptionTypeNames = new HashSet<>();
+    private final Map<String, Map<String, Method>> resolverMap = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Cost>> fieldCosts = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Duration>> fieldTimeouts = new ConcurrentHashMap<>();
+    private final Map<String, Bulkhead> fieldBulkheads = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Bulkhead> classBulkheads = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Function<Object, Object>>> getterAccessors = new HashMap<>();
+    private List<String> schemaNames = Collections.emptyList();
+    private final Map<String, byte[]> encodedNames = new HashMap<>();
+    private final Map<String, Function<Object, Object>> idAccessors = new ConcurrentHashMap<>();
+    private final Map<String, String> idFields = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errorCounters = new ConcurrentHashMap<>();
+    private volatile ResolverErrorClassifier errorClassifier = ResolverErrorClassifier.DEFAULT;
+    private volatile boolean warmingUp;
+
+    // jdk.jfr only exists from 8u262 on, older runtimes wire and resolve without recording events
+    private static final boolean FLIGHT_RECORDER = isFlightRecorderAvailable();
+
+    /**
+     * How much of a schema is wired up front. {@link #EAGER} verifies every type while the factory is constructed
+     * and doubles as an offline check of a schema against its classes. {@link #LAZY} skips the types that cannot be
+     * reached from the schema roots, and verifies object types, finding their resolvers, only once the schema
+     * generator asks for their data fetchers. Errors of lazily verified types show up in {@link #getErrors()} after
+     * the schema has been generated, and getter-only types are not compiled. {@link #PARALLEL} wires like
+     * {@link #EAGER}, but loads classes, verifies types and compiles getters on the common {@link ForkJoinPool},
+     * reporting the same errors in the same order.
+     */
+    public enum Mode {
+        EAGER, LAZY, PARALLEL
+    }
 
     public ReflectionWiringFactory(TypeDefinitionRegistry registry, String packageName) {
-        Map<String, Class<?>> classes = new HashMap<>();
-        for (TypeDefinition typeDef : registry.types().values()) {
+        this(registry, packageName, Mode.EAGER);
+    }
+
+    public ReflectionWiringFactory(TypeDefinitionRegistry registry, String packageName, Mode mode) {
+        this.mode = mode;
+        Collection<TypeDefinition> types = wiredTypes(registry, mode);
+        Map<String, Class<?>> classes = new ConcurrentHashMap<>();
+        Stream<TypeDefinition> typeStream = mode == Mode.PARALLEL ? types.parallelStream() : types.stream();
+        typeStream.forEach(typeDef -> {
             String className = packageName + "." + typeDef.getName();
             try {
                 classes.put(typeDef.getName(), Class.forName(className));
             } catch (ClassNotFoundException e) {
             }
-        }
-        registerTypes(registry.types().values(), classes);
-        verifyClasses(registry.types().values());
-        verifyQueries(registry);
+        });
+        wire(registry, types, classes, mode);
     }
 
     public ReflectionWiringFactory(TypeDefinitionRegistry registry, Collection<Class<?>> classList) {
+        this(registry, classList, Mode.EAGER);
+    }
+
+    public ReflectionWiringFactory(TypeDefinitionRegistry registry, Collection<Class<?>> classList, Mode mode) {
+        this.mode = mode;
         Map<String, Class<?>> classes = classList.stream()
                 .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
-        registerTypes(registry.types().values(), classes);
-        verifyClasses(registry.types().values());
-        verifyQueries(registry);
+        wire(registry, wiredTypes(registry, mode), classes, mode);
+    }
+
+    private void wire(TypeDefinitionRegistry registry, Collection<TypeDefinition> types,
+                      Map<String, Class<?>> classes, Mode mode) {
+        mutationTypeNames.addAll(operationTypeNames(registry, "mutation"));
+        subscriptionTypeNames.addAll(operationTypeNames(registry, "subscription"));
+        phase("registerTypes", types.size(), () -> registerTypes(types, classes));
+        if (mode == Mode.LAZY) {
+            Set<String> rootTypeNames = rootTypeNames(registry);
+            for (TypeDefinition typeDef : types) {
+                if (typeDef instanceof ObjectTypeDefinition && !rootTypeNames.contains(typeDef.getName())) {
+                    pendingTypes.put(typeDef.getName(), (ObjectTypeDefinition) typeDef);
+                }
+            }
+            List<TypeDefinition> eagerTypes = types.stream()
+                    .filter(typeDef -> !pendingTypes.containsKey(typeDef.getName()))
+                    .collect(Collectors.toList());
+            phase("verifyClasses", eagerTypes.size(), () -> verifyClasses(eagerTypes, false));
+            phase("verifyQueries", rootTypeNames.size(), () -> verifyQueries(registry));
+        } else {
+            boolean parallel = mode == Mode.PARALLEL;
+            phase("verifyClasses", types.size(), () -> verifyClasses(types, parallel));
+            phase("verifyQueries", types.size(), () -> verifyQueries(registry));
+            phase("compileGetters", types.size(), () -> compileGetterOnlyTypes(types, parallel));
+        }
+        // all names, so readers built from the registry alone agree on the indexes even in LAZY mode
+        phase("encodeNames", registry.types().size(), () -> encodeNames(registry.types().values()));
+    }
+
+    /**
+     * Returns a factory wired against a changed schema or changed classes without verifying everything again. Only
+     * the types that were added, whose definition or class changed, or that refer to any of those are verified, the
+     * resolvers, costs, timeouts and bulkheads of all other types are carried over. This factory is left as it is,
+     * so schemas generated from it keep working until they are replaced. Changed classes are matched to types by
+     * their simple name, and the classes of added types must be among them. Errors of types that are not verified
+     * again are not reported again, so only rewire a factory without errors. Fields of verified types lose the
+     * timeouts and bulkheads set on them and get the ones their methods declare. Id fields are kept as long as they
+     * are still resolved by getters. Bulkheads and error counts of removed types are dropped.
+     */
+    public ReflectionWiringFactory rewire(TypeDefinitionRegistry registry, Collection<Class<?>> changedClasses) {
+        return new ReflectionWiringFactory(this, registry, changedClasses);
+    }
+
+    private ReflectionWiringFactory(ReflectionWiringFactory previous, TypeDefinitionRegistry registry,
+                                    Collection<Class<?>> changedClasses) {
+        mode = previous.mode;
+        Collection<TypeDefinition> types = wiredTypes(registry, mode);
+        Map<String, Class<?>> classes = new HashMap<>();
+        classes.putAll(previous.objectTypeMap);
+        classes.putAll(previous.inputObjectTypeMap);
+        classes.putAll(previous.enumTypeMap);
+        classes.putAll(previous.interfaceTypeMap);
+
+        Set<String> changed = new HashSet<>();
+        for (Class<?> javaClass : changedClasses) {
+            classes.put(javaClass.getSimpleName(), javaClass);
+            changed.add(javaClass.getSimpleName());
+        }
+        AstComparator comparator = new AstComparator();
+        for (TypeDefinition typeDef : types) {
+            TypeDefinition previousDef = previous.typeDefinitions.get(typeDef.getName());
+            if (previousDef == null || !comparator.isEqual(previousDef, typeDef)) {
+                changed.add(typeDef.getName());
+            }
+        }
+        Set<String> affected = new HashSet<>(changed);
+        for (TypeDefinition typeDef : types) {
+            List<String> referenced = referencedTypeNames(typeDef);
+            if (referenced.stream().anyMatch(changed::contains)) {
+                affected.add(typeDef.getName());
+            }
+            if (typeDef instanceof UnionTypeDefinition && changed.contains(typeDef.getName())) {
+                // members are checked against the class of their union
+                affected.addAll(referenced);
+            }
+        }
+
+        mutationTypeNames.addAll(operationTypeNames(registry, "mutation"));
+        subscriptionTypeNames.addAll(operationTypeNames(registry, "subscription"));
+        phase("registerTypes", types.size(), () -> registerTypes(types, classes));
+        Set<String> typeNames = registry.types().keySet();
+        previous.errorCounters.forEach((fieldKey, counter) -> {
+            if (typeNames.contains(fieldKey.substring(0, fieldKey.indexOf('.')))) {
+                errorCounters.put(fieldKey, counter);
+            }
+        });
+        errorClassifier = previous.errorClassifier;
+        previous.classBulkheads.forEach((javaClass, bulkhead) -> {
+            if (objectTypeMap.values().stream().anyMatch(javaClass::isAssignableFrom)) {
+                classBulkheads.put(javaClass, bulkhead);
+            }
+        });
+        previous.fieldBulkheads.forEach((fieldKey, bulkhead) -> {
+            String typeName = fieldKey.substring(0, fieldKey.indexOf('.'));
+            if (typeNames.contains(typeName) && !affected.contains(typeName)) {
+                fieldBulkheads.put(fieldKey, bulkhead);
+            }
+        });
+        Set<String> rootTypeNames = rootTypeNames(registry);
+        List<TypeDefinition> verifiedTypes = new ArrayList<>();
+        synchronized (previous.pendingTypes) {
+            for (TypeDefinition typeDef : types) {
+                String typeName = typeDef.getName();
+                boolean pending = affected.contains(typeName)
+                        ? mode == Mode.LAZY && typeDef instanceof ObjectTypeDefinition
+                                && !rootTypeNames.contains(typeName)
+                        : previous.pendingTypes.containsKey(typeName);
+                if (pending) {
+                    pendingTypes.put(typeName, (ObjectTypeDefinition) typeDef);
+                } else if (affected.contains(typeName)) {
+                    verifiedTypes.add(typeDef);
+                } else {
+                    carryOver(previous, typeName);
+                }
+            }
+        }
+
+        boolean parallel = mode == Mode.PARALLEL;
+        phase("verifyClasses", verifiedTypes.size(), () -> verifyClasses(verifiedTypes, parallel));
+        phase("verifyQueries", rootTypeNames.size(), () -> verifyQueries(registry));
+        if (mode != Mode.LAZY) {
+            // accessors of unchanged classes come from the shared class metadata
+            phase("compileGetters", types.size(), () -> compileGetterOnlyTypes(types, parallel));
+        }
+        previous.idFields.forEach((typeName, fieldName) -> {
+            if (affected.contains(typeName) && objectTypeMap.containsKey(typeName)) {
+                try {
+                    setIdField(typeName, fieldName);
+                } catch (IllegalArgumentException e) {
+                    // the field was removed or is no longer resolved by a getter
+                }
+            }
+        });
+        phase("encodeNames", registry.types().size(), () -> encodeNames(registry.types().values()));
+    }
+
+    private void carryOver(ReflectionWiringFactory previous, String typeName) {
+        Map<String, Method> resolvers = previous.resolverMap.get(typeName);
+        if (resolvers != null) {
+            resolverMap.put(typeName, new HashMap<>(resolvers));
+        }
+        Map<String, Cost> costs = previous.fieldCosts.get(typeName);
+        if (costs != null) {
+            fieldCosts.put(typeName, new HashMap<>(costs));
+        }
+        Map<String, Duration> timeouts = previous.fieldTimeouts.get(typeName);
+        if (timeouts != null) {
+            fieldTimeouts.put(typeName, new ConcurrentHashMap<>(timeouts));
+        }
+        Function<Object, Object> idAccessor = previous.idAccessors.get(typeName);
+        if (idAccessor != null) {
+            idAccessors.put(typeName, idAccessor);
+            idFields.put(typeName, previous.idFields.get(typeName));
+        }
+    }
+
+    private static Collection<TypeDefinition> wiredTypes(TypeDefinitionRegistry registry, Mode mode) {
+        if (mode != Mode.LAZY) {
+            return registry.types().values();
+        }
+
+        Map<String, List<String>> implementations = new HashMap<>();
+        for (TypeDefinition typeDef : registry.types().values()) {
+            if (typeDef instanceof ObjectTypeDefinition) {
+                for (Type implemented : ((ObjectTypeDefinition) typeDef).getImplements()) {
+                    implementations.computeIfAbsent(baseTypeName(implemented), k -> new ArrayList<>())
+                            .add(typeDef.getName());
+                }
+            }
+        }
+
+        Map<String, TypeDefinition> reachable = new LinkedHashMap<>();
+        Deque<String> queue = new ArrayDeque<>(rootTypeNames(registry));
+        while (!queue.isEmpty()) {
+            String typeName = queue.poll();
+            TypeDefinition typeDef = registry.types().get(typeName);
+            if (typeDef == null || reachable.containsKey(typeName)) {
+                continue;
+            }
+            reachable.put(typeName, typeDef);
+            queue.addAll(referencedTypeNames(typeDef));
+            if (typeDef instanceof InterfaceTypeDefinition) {
+                queue.addAll(implementations.getOrDefault(typeName, Collections.emptyList()));
+            }
+        }
+        return reachable.values();
+    }
+
+    /**
+     * Names of the types a type definition refers to: implemented interfaces, field and argument types, union
+     * members and input value types.
+     */
+    private static List<String> referencedTypeNames(TypeDefinition typeDef) {
+        List<String> names = new ArrayList<>();
+        if (typeDef instanceof ObjectTypeDefinition) {
+            ObjectTypeDefinition objectTypeDef = (ObjectTypeDefinition) typeDef;
+            objectTypeDef.getImplements().forEach(t -> names.add(baseTypeName(t)));
+            addFieldTypes(objectTypeDef.getFieldDefinitions(), names);
+        } else if (typeDef instanceof InterfaceTypeDefinition) {
+            addFieldTypes(((InterfaceTypeDefinition) typeDef).getFieldDefinitions(), names);
+        } else if (typeDef instanceof UnionTypeDefinition) {
+            ((UnionTypeDefinition) typeDef).getMemberTypes().forEach(t -> names.add(baseTypeName(t)));
+        } else if (typeDef instanceof InputObjectTypeDefinition) {
+            ((InputObjectTypeDefinition) typeDef).getInputValueDefinitions()
+                    .forEach(valueDef -> names.add(baseTypeName(valueDef.getType())));
+        }
+        return names;
+    }
+
+    private static void addFieldTypes(List<FieldDefinition> fieldDefs, List<String> names) {
+        for (FieldDefinition fieldDef : fieldDefs) {
+            names.add(baseTypeName(fieldDef.getType()));
+            fieldDef.getInputValueDefinitions().forEach(valueDef -> names.add(baseTypeName(valueDef.getType())));
+        }
+    }
+
+    private static Set<String> rootTypeNames(TypeDefinitionRegistry registry) {
+        return registry.schemaDefinition()
+                .map(schema -> schema.getOperationTypeDefinitions().stream()
+                        .filter(op -> op.getType() instanceof TypeName)
+                        .map(op -> ((TypeName) op.getType()).getName())
+                        .collect(Collectors.toSet()))
+                .orElse(Collections.singleton("Query"));
+    }
+
+    /**
+     * Verifies an object type left for later in {@link Mode#LAZY}, finding the resolvers of its fields.
+     */
+    private void verifyLazily(String typeName) {
+        if (pendingTypes.isEmpty()) {
+            return;
+        }
+        synchronized (pendingTypes) {
+            ObjectTypeDefinition typeDef = pendingTypes.remove(typeName);
+            if (typeDef != null) {
+                verifyObjectType(typeDef);
+            }
+        }
+    }
+
+    private void phase(String name, int typeCount, Runnable phase) {
+        if (!FLIGHT_RECORDER) {
+            phase.run();
+            return;
+        }
+        WiringPhaseEvent event = new WiringPhaseEvent();
+        int errorCount = errors.size();
+        event.begin();
+        phase.run();
+        event.commit(name, typeCount, errors.size() - errorCount);
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, ReflectionWiringFactory.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a begun invocation event, or null when JFR is not available. The event classes are only loaded here
+     * and in {@link #commitInvocation}, so runtimes without {@code jdk.jfr} never touch them.
+     */
+    private static ResolverInvocationEvent beginInvocation() {
+        if (!FLIGHT_RECORDER) {
+            return null;
+        }
+        ResolverInvocationEvent event = new ResolverInvocationEvent();
+        event.begin();
+        return event;
+    }
+
+    private static void commitInvocation(ResolverInvocationEvent event, String typeName, String fieldName,
+                                         String methodName, Throwable failure) {
+        if (event != null) {
+            event.commit(typeName, fieldName, methodName, failure);
+        }
+    }
+
+    /**
+     * Commits the invocation event once the stage returned by an asynchronous resolver completes, so the event
+     * spans the whole resolution and records its failure.
+     */
+    private static void commitInvocationOnCompletion(ResolverInvocationEvent event, CompletionStage<?> stage,
+                                                     String typeName, String fieldName, String methodName) {
+        if (event != null) {
+            stage.whenComplete((value, exception) -> commitInvocation(event, typeName, fieldName, methodName,
+                    exception == null ? null : unwrap(exception)));
+        }
     }
 
     @Override
     public boolean providesDataFetcher(FieldWiringEnvironment env) {
         String typeName = env.getParentType().getName();
         String fieldName = env.getFieldDefinition().getName();
+        verifyLazily(typeName);
         return resolverMap.containsKey(typeName) && resolverMap.get(typeName).containsKey(fieldName);
     }
 
     @Override
     public DataFetcher getDataFetcher(FieldWiringEnvironment env) {
-        Method method = resolverMap.get(env.getParentType().getName()).get(env.getFieldDefinition().getName());
-
-        if (method.getName().startsWith("fetch")) {
-            return buildDataFetcherFromMethod(method, env.getFieldDefinition().getInputValueDefinitions());
+        String typeName = env.getParentType().getName();
+        String fieldName = env.getFieldDefinition().getName();
+        verifyLazily(typeName);
+        Method method = resolverMap.get(typeName).get(fieldName);
+
+        if (method.getName().startsWith("batch")) {
+            return buildDataFetcherFromBatchMethod(typeName, fieldName, method,
+                    env.getFieldDefinition().getInputValueDefinitions());
+        } else if (method.getName().startsWith("fetch")) {
+            return buildDataFetcherFromMethod(typeName, fieldName, method,
+                    env.getFieldDefinition().getInputValueDefinitions());
         } else {
-            return buildDataFetcherFromGetter(method);
+            return buildDataFetcherFromGetter(typeName, fieldName, method);
         }
     }
 
@@ -86,6 +446,155 @@ public class ReflectionWiringFactory implements WiringFactory {
         return errors;
     }
 
+    /**
+     * Returns the classes wired to types of the schema and the classes declaring their resolvers, sorted by name.
+     */
+    public Set<Class<?>> getResolverClasses() {
+        Set<Class<?>> classes = new TreeSet<>(Comparator.comparing(Class::getName));
+        classes.addAll(objectTypeMap.values());
+        classes.addAll(inputObjectTypeMap.values());
+        classes.addAll(enumTypeMap.values());
+        classes.addAll(interfaceTypeMap.values());
+        resolverMap.values().forEach(resolvers -> resolvers.values()
+                .forEach(method -> classes.add(method.getDeclaringClass())));
+        return classes;
+    }
+
+    public Set<String> getGetterOnlyTypes() {
+        return Collections.unmodifiableSet(getterAccessors.keySet());
+    }
+
+    Map<String, Function<Object, Object>> getGetterAccessors(String typeName) {
+        return getterAccessors.get(typeName);
+    }
+
+    public List<String> getSchemaNames() {
+        return schemaNames;
+    }
+
+    Map<String, byte[]> getEncodedNames() {
+        return encodedNames;
+    }
+
+    public void setIdField(String typeName, String fieldName) {
+        verifyLazily(typeName);
+        if (!objectTypeMap.containsKey(typeName)) {
+            throw new IllegalArgumentException(String.format("Type '%s' is not a wired object type", typeName));
+        }
+        Method getter = resolverMap.getOrDefault(typeName, Collections.emptyMap()).get(fieldName);
+        if (getter == null || getter.getName().startsWith("fetch") || Modifier.isStatic(getter.getModifiers())) {
+            throw new IllegalArgumentException(String.format(
+                    "Id field '%s.%s' must be resolved by a getter", typeName, fieldName));
+        }
+        Map<String, Function<Object, Object>> accessors = getterAccessors.get(typeName);
+        idAccessors.put(typeName, accessors != null ? accessors.get(fieldName) : compileGetter(getter));
+        idFields.put(typeName, fieldName);
+    }
+
+    Cost getCost(String typeName, String fieldName) {
+        return fieldCosts.getOrDefault(typeName, Collections.emptyMap()).get(fieldName);
+    }
+
+    /**
+     * Overrides the timeout of a field resolved by a fetch method, whether or not the method declares one with
+     * {@link Timeout}, or removes it when the timeout is null. Timeouts are enforced by a
+     * {@link DeadlineInstrumentation}, which every {@link ReflectionGraphQL} installs.
+     */
+    public void setTimeout(String typeName, String fieldName, Duration timeout) {
+        verifyLazily(typeName);
+        Method method = resolverMap.getOrDefault(typeName, Collections.emptyMap()).get(fieldName);
+        if (method == null || !method.getName().startsWith("fetch")) {
+            throw new IllegalArgumentException(String.format(
+                    "Field '%s.%s' is not resolved by a fetch method", typeName, fieldName));
+        }
+        if (timeout == null) {
+            fieldTimeouts.computeIfPresent(typeName, (k, timeouts) -> {
+                timeouts.remove(fieldName);
+                return timeouts;
+            });
+        } else if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive but was " + timeout);
+        } else {
+            fieldTimeouts.computeIfAbsent(typeName, k -> new ConcurrentHashMap<>()).put(fieldName, timeout);
+        }
+    }
+
+    Duration getTimeout(String typeName, String fieldName) {
+        Map<String, Duration> timeouts = fieldTimeouts.get(typeName);
+        return timeouts == null ? null : timeouts.get(fieldName);
+    }
+
+    ResolverException timeoutException(String typeName, String fieldName, TimeoutException e) {
+        return resolverException(typeName, fieldName, e, errorCounter(typeName, fieldName));
+    }
+
+    /**
+     * Replaces the bulkhead of a field resolved by a fetch method, or removes it when the bulkhead is null.
+     */
+    public void setBulkhead(String typeName, String fieldName, Bulkhead bulkhead) {
+        verifyLazily(typeName);
+        Method method = resolverMap.getOrDefault(typeName, Collections.emptyMap()).get(fieldName);
+        if (method == null || !method.getName().startsWith("fetch")) {
+            throw new IllegalArgumentException(String.format(
+                    "Field '%s.%s' is not resolved by a fetch method", typeName, fieldName));
+        }
+        if (bulkhead == null) {
+            fieldBulkheads.remove(typeName + "." + fieldName);
+        } else {
+            fieldBulkheads.put(typeName + "." + fieldName, bulkhead);
+        }
+    }
+
+    /**
+     * Replaces the bulkhead shared by all fetch methods declared by a class, or removes it when the bulkhead is null.
+     */
+    public void setBulkhead(Class<?> resolverClass, Bulkhead bulkhead) {
+        if (bulkhead == null) {
+            classBulkheads.remove(resolverClass);
+        } else {
+            classBulkheads.put(resolverClass, bulkhead);
+        }
+    }
+
+    public List<Bulkhead> getBulkheads() {
+        List<Bulkhead> bulkheads = new ArrayList<>(classBulkheads.values());
+        bulkheads.addAll(fieldBulkheads.values());
+        bulkheads.sort(Comparator.comparing(Bulkhead::getName));
+        return bulkheads;
+    }
+
+    boolean resolvesTypeByClass(String abstractTypeName) {
+        return interfaceTypeMap.containsKey(abstractTypeName);
+    }
+
+    public boolean hasIdField(String typeName) {
+        return idAccessors.containsKey(typeName);
+    }
+
+    Object getId(String typeName, Object source) {
+        Function<Object, Object> accessor = idAccessors.get(typeName);
+        return accessor == null ? null : accessor.apply(source);
+    }
+
+    public void setErrorClassifier(ResolverErrorClassifier errorClassifier) {
+        this.errorClassifier = errorClassifier;
+    }
+
+    /**
+     * While set, resolvers are called without their bulkheads and their failures are not counted, so a warm-up
+     * leaves the state the health of the instance is judged by alone. Executions running alongside a warm-up are
+     * treated alike, an instance that is still warming up is not ready to take them.
+     */
+    void setWarmingUp(boolean warmingUp) {
+        this.warmingUp = warmingUp;
+    }
+
+    public Map<String, Long> getResolverErrorCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        errorCounters.forEach((field, counter) -> counts.put(field, counter.sum()));
+        return counts;
+    }
+
     private void registerTypes(Collection<TypeDefinition> graphqlTypes, Map<String, Class<?>> classes) {
 
         scalarTypeMap.put("Boolean", new HashSet<>(Arrays.asList(Boolean.class, boolean.class)));
@@ -95,6 +604,7 @@ public class ReflectionWiringFactory implements WiringFactory {
         scalarTypeMap.put("ID", new HashSet<>(Collections.singletonList(String.class)));
 
         for (TypeDefinition typeDef : graphqlTypes) {
+            typeDefinitions.put(typeDef.getName(), typeDef);
             Class<?> javaClass = classes.get(typeDef.getName());
 
             if (javaClass == null) {
@@ -135,31 +645,44 @@ public class ReflectionWiringFactory implements WiringFactory {
         }
     }
 
-    private void verifyClasses(Collection<TypeDefinition> graphqlTypes) {
-        for (TypeDefinition typeDef : graphqlTypes) {
-            if (typeDef instanceof ObjectTypeDefinition) {
-                verifyObjectType((ObjectTypeDefinition) typeDef);
-            } else if (typeDef instanceof UnionTypeDefinition) {
-                verifyUnionType((UnionTypeDefinition)typeDef);
-            } else if (typeDef instanceof InputObjectTypeDefinition) {
-                verifyInputObjectType((InputObjectTypeDefinition) typeDef);
-            } else if (typeDef instanceof EnumTypeDefinition) {
-                verifyEnumType((EnumTypeDefinition) typeDef);
-            } else if (typeDef instanceof InterfaceTypeDefinition) {
-                verifyInterfaceType((InterfaceTypeDefinition) typeDef);
-            }
+    private void verifyClasses(Collection<TypeDefinition> graphqlTypes, boolean parallel) {
+        if (!parallel) {
+            graphqlTypes.forEach(this::verifyType);
+            return;
         }
+        // every type collects its own errors, they are added in the order of the types once all are verified
+        List<List<String>> typeErrors = graphqlTypes.parallelStream()
+                .map(typeDef -> {
+                    List<String> sink = new ArrayList<>();
+                    errorSink.set(sink);
+                    try {
+                        verifyType(typeDef);
+                    } finally {
+                        errorSink.remove();
+                    }
+                    return sink;
+                })
+                .collect(Collectors.toList());
+        typeErrors.forEach(errors::addAll);
     }
 
-    private void verifyQueries(TypeDefinitionRegistry registry) {
-        registry.schemaDefinition().ifPresent(schema -> {
-            List<String> queryTypeNames = schema.getOperationTypeDefinitions().stream()
-                    .filter(op -> "query".equals(op.getName()))
-                    .filter(op -> op.getType() instanceof TypeName)
-                    .map(op -> ((TypeName)op.getType()).getName())
-                    .collect(Collectors.toList());
+    private void verifyType(TypeDefinition typeDef) {
+        if (typeDef instanceof ObjectTypeDefinition) {
+            verifyObjectType((ObjectTypeDefinition) typeDef);
+        } else if (typeDef instanceof UnionTypeDefinition) {
+            verifyUnionType((UnionTypeDefinition)typeDef);
+        } else if (typeDef instanceof InputObjectTypeDefinition) {
+            verifyInputObjectType((InputObjectTypeDefinition) typeDef);
+        } else if (typeDef instanceof EnumTypeDefinition) {
+            verifyEnumType((EnumTypeDefinition) typeDef);
+        } else if (typeDef instanceof InterfaceTypeDefinition) {
+            verifyInterfaceType((InterfaceTypeDefinition) typeDef);
+        }
+    }
 
-            for (String typeName: queryTypeNames) {
+    private void verifyQueries(TypeDefinitionRegistry registry) {
+        for (String operation : Arrays.asList("query", "mutation", "subscription")) {
+            for (String typeName : operationTypeNames(registry, operation)) {
                 boolean hasNonStaticResolver = resolverMap.getOrDefault(typeName, Collections.emptyMap()).values()
                         .stream()
                         .anyMatch(method -> !Modifier.isStatic(method.getModifiers()));
@@ -169,13 +692,123 @@ public class ReflectionWiringFactory implements WiringFactory {
                     try {
                         javaClass.getConstructor();
                     } catch (NoSuchMethodException e) {
-                        error("Class '%s' is root query and doesn't have a default " +
+                        error("Class '%s' is root %s and doesn't have a default " +
                                         "constructor but it has non-static resolvers",
-                                javaClass.getSimpleName());
+                                javaClass.getSimpleName(), operation);
                     }
                 }
             }
+        }
+    }
+
+    private static List<String> operationTypeNames(TypeDefinitionRegistry registry, String operation) {
+        return registry.schemaDefinition()
+                .map(schema -> schema.getOperationTypeDefinitions().stream()
+                        .filter(op -> operation.equals(op.getName()))
+                        .filter(op -> op.getType() instanceof TypeName)
+                        .map(op -> ((TypeName) op.getType()).getName())
+                        .collect(Collectors.toList()))
+                .orElse(Collections.emptyList());
+    }
+
+    private void compileGetterOnlyTypes(Collection<TypeDefinition> graphqlTypes, boolean parallel) {
+        Map<String, ObjectTypeDefinition> getterOnlyTypes = new HashMap<>();
+        for (TypeDefinition typeDef : graphqlTypes) {
+            if (typeDef instanceof ObjectTypeDefinition && isGetterOnly((ObjectTypeDefinition) typeDef)) {
+                getterOnlyTypes.put(typeDef.getName(), (ObjectTypeDefinition) typeDef);
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = getterOnlyTypes.values().removeIf(typeDef -> typeDef.getFieldDefinitions().stream()
+                    .map(fieldDef -> baseTypeName(fieldDef.getType()))
+                    .anyMatch(name -> objectTypeMap.containsKey(name) && !getterOnlyTypes.containsKey(name)));
+        }
+
+        Stream<String> typeNames = parallel
+                ? getterOnlyTypes.keySet().parallelStream()
+                : getterOnlyTypes.keySet().stream();
+        getterAccessors.putAll(typeNames.collect(Collectors.toMap(Function.identity(), typeName -> {
+            Map<String, Function<Object, Object>> accessors = new HashMap<>();
+            resolverMap.get(typeName).forEach((fieldName, getter) -> accessors.put(fieldName, compileGetter(getter)));
+            return accessors;
+        })));
+    }
+
+    private void encodeNames(Collection<TypeDefinition> graphqlTypes) {
+        schemaNames = schemaNames(graphqlTypes);
+        for (String name : schemaNames) {
+            encodedNames.put(name, ('"' + name + '"').getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    static List<String> schemaNames(Collection<TypeDefinition> graphqlTypes) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add("__typename");
+        graphqlTypes.stream().sorted(Comparator.comparing(TypeDefinition::getName)).forEach(typeDef -> {
+            if (typeDef instanceof ObjectTypeDefinition) {
+                ((ObjectTypeDefinition) typeDef).getFieldDefinitions().forEach(f -> names.add(f.getName()));
+            } else if (typeDef instanceof InterfaceTypeDefinition) {
+                ((InterfaceTypeDefinition) typeDef).getFieldDefinitions().forEach(f -> names.add(f.getName()));
+            } else if (typeDef instanceof EnumTypeDefinition) {
+                ((EnumTypeDefinition) typeDef).getEnumValueDefinitions().forEach(v -> names.add(v.getName()));
+            }
         });
+        return Collections.unmodifiableList(new ArrayList<>(names));
+    }
+
+    private boolean isGetterOnly(ObjectTypeDefinition graphqlObjectTypeDef) {
+        Map<String, Method> resolvers = resolverMap.getOrDefault(graphqlObjectTypeDef.getName(), Collections.emptyMap());
+        for (FieldDefinition fieldDef : graphqlObjectTypeDef.getFieldDefinitions()) {
+            Method method = resolvers.get(fieldDef.getName());
+            if (method == null || method.getName().startsWith("fetch") || Modifier.isStatic(method.getModifiers())) {
+                return false;
+            }
+            String typeName = baseTypeName(fieldDef.getType());
+            if (!scalarTypeMap.containsKey(typeName) && !enumTypeMap.containsKey(typeName)
+                    && !objectTypeMap.containsKey(typeName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Function<Object, Object> compileGetter(Method getter) {
+        return ResolverClassInfo.of(getter.getDeclaringClass())
+                .getterAccessor(getter, ReflectionWiringFactory::compileGetterAccessor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compileGetterAccessor(Method getter) {
+        if (isVisible(getter.getDeclaringClass())) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(getter);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle, handle.type().wrap());
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // fall back to reflection below
+            }
+        }
+        return source -> {
+            try {
+                return getter.invoke(source);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static boolean isVisible(Class<?> javaClass) {
+        try {
+            return Class.forName(javaClass.getName(), false, ReflectionWiringFactory.class.getClassLoader()) == javaClass;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
     }
 
     private void verifyObjectType(ObjectTypeDefinition graphqlObjectTypeDef) {
@@ -187,7 +820,7 @@ public class ReflectionWiringFactory implements WiringFactory {
         }
 
         for (FieldDefinition fieldDef : graphqlObjectTypeDef.getFieldDefinitions()) {
-            Method method = findCompatibleMethod(javaClass, fieldDef);
+            Method method = findCompatibleMethod(typeName, javaClass, fieldDef);
 
             if (method == null) {
                 error("Unable to find resolver for field '%s' of type '%s'",
@@ -218,7 +851,7 @@ public class ReflectionWiringFactory implements WiringFactory {
         }
 
         for (FieldDefinition fieldDef : graphqlInterfaceDef.getFieldDefinitions()) {
-            Method method = findCompatibleMethod(javaInterface, fieldDef);
+            Method method = findCompatibleMethod(graphqlInterfaceDef.getName(), javaInterface, fieldDef);
             if (method == null) {
                 error("Interface '%s' does not define properly define method '%s'",
                         javaInterface.getSimpleName(), fieldDef.getName());
@@ -240,7 +873,7 @@ public class ReflectionWiringFactory implements WiringFactory {
             return;
         }
 
-        if (javaUnion.getMethods().length != 0) {
+        if (ResolverClassInfo.of(javaUnion).hasPublicMethods()) {
             error("Interface '%s' should not have methods, it's mapped as a GraphQL Union",
                     javaUnion.getSimpleName());
         }
@@ -287,19 +920,29 @@ public class ReflectionWiringFactory implements WiringFactory {
             }
         }
 
-        try {
-            javaClass.getConstructor(Map.class);
-        } catch (NoSuchMethodException e) {
+        if (ResolverClassInfo.of(javaClass).getMapConstructor() == null) {
             error("InputType %s doesn't have a Map<String,Object> constructor", graphqlInputObjectDef.getName());
         }
     }
 
-    private Method findCompatibleMethod(Class<?> javaClass, FieldDefinition graphqlFieldDef) {
-        Method fetcherMethod = findFetcherMethod(javaClass, graphqlFieldDef);
+    private Method findCompatibleMethod(String typeName, Class<?> javaClass, FieldDefinition graphqlFieldDef) {
+        if (mutationTypeNames.contains(typeName)) {
+            Method batchMethod = findBatchMethod(javaClass, graphqlFieldDef);
+            if (batchMethod != null) {
+                return batchMethod;
+            }
+        }
+
+        Method fetcherMethod = findFetcherMethod(typeName, javaClass, graphqlFieldDef);
         if (fetcherMethod != null) {
             return fetcherMethod;
         }
 
+        if (subscriptionTypeNames.contains(typeName)) {
+            // a getter cannot return a stream of events
+            return null;
+        }
+
         Method getterMethod = findGetter(javaClass, graphqlFieldDef.getName(), graphqlFieldDef.getType());
         if (getterMethod != null) {
             return getterMethod;
@@ -308,10 +951,11 @@ public class ReflectionWiringFactory implements WiringFactory {
         return null;
     }
 
-    private Method findFetcherMethod(Class<?> javaClass, FieldDefinition graphqlFieldDef) {
+    private Method findFetcherMethod(String typeName, Class<?> javaClass, FieldDefinition graphqlFieldDef) {
         String fetcherName = buildFetcherName("fetch", graphqlFieldDef.getName());
 
-        Method method = findPublicMethod(javaClass, fetcherName, graphqlFieldDef.getType());
+        Method method = findPublicMethod(javaClass, fetcherName, graphqlFieldDef.getType(),
+                subscriptionTypeNames.contains(typeName));
 
         if (method == null) {
             return null;
@@ -354,24 +998,162 @@ public class ReflectionWiringFactory implements WiringFactory {
             }
         }
 
+        Cost cost = method.getAnnotation(Cost.class);
+        if (cost != null) {
+            if (cost.value() < 0) {
+                error("Method '%s' in class '%s' has negative cost %d",
+                        fetcherName, javaClass.getSimpleName(), cost.value());
+                return null;
+            }
+            for (String multiplier : cost.multipliers()) {
+                boolean isMultiplier = fieldParams.stream()
+                        .filter(inputDef -> inputDef.getName().equals(multiplier))
+                        .anyMatch(inputDef -> isCostMultiplier(inputDef.getType()));
+                if (!isMultiplier) {
+                    error("Cost multiplier '%s' of method '%s' in class '%s' is not a list or Int argument",
+                            multiplier, fetcherName, javaClass.getSimpleName());
+                    return null;
+                }
+            }
+            fieldCosts.computeIfAbsent(typeName, k -> new HashMap<>()).put(graphqlFieldDef.getName(), cost);
+        }
+
+        ConcurrencyLimit concurrencyLimit = method.getAnnotation(ConcurrencyLimit.class);
+        ConcurrencyLimit classConcurrencyLimit = method.getDeclaringClass().getAnnotation(ConcurrencyLimit.class);
+        if (concurrencyLimit != null && concurrencyLimit.value() < 1
+                || classConcurrencyLimit != null && classConcurrencyLimit.value() < 1) {
+            error("Method '%s' in class '%s' has a non-positive concurrency limit",
+                    fetcherName, javaClass.getSimpleName());
+            return null;
+        }
+        if (concurrencyLimit != null) {
+            String fieldKey = typeName + "." + graphqlFieldDef.getName();
+            fieldBulkheads.put(fieldKey, Bulkhead.newBulkhead(fieldKey)
+                    .limits(1, concurrencyLimit.value(), concurrencyLimit.value())
+                    .build());
+        }
+        if (classConcurrencyLimit != null) {
+            classBulkheads.computeIfAbsent(method.getDeclaringClass(), c -> Bulkhead.newBulkhead(c.getSimpleName())
+                    .limits(1, classConcurrencyLimit.value(), classConcurrencyLimit.value())
+                    .build());
+        }
+
+        Timeout timeout = method.getAnnotation(Timeout.class);
+        if (timeout != null) {
+            if (timeout.value() <= 0) {
+                error("Method '%s' in class '%s' has non-positive timeout %d",
+                        fetcherName, javaClass.getSimpleName(), timeout.value());
+                return null;
+            }
+            fieldTimeouts.computeIfAbsent(typeName, k -> new ConcurrentHashMap<>())
+                    .put(graphqlFieldDef.getName(), Duration.ofMillis(timeout.value()));
+        }
+
+        return method;
+    }
+
+    /**
+     * Finds the static method performing a batch of calls of a mutation field, taking the environments of the calls
+     * and one list per argument holding its values in the order of the calls, and returning a list of results.
+     */
+    private Method findBatchMethod(Class<?> javaClass, FieldDefinition graphqlFieldDef) {
+        String batchName = buildFetcherName("batch", graphqlFieldDef.getName());
+        List<Method> matchingMethods = ResolverClassInfo.of(javaClass).getPublicMethods(batchName);
+
+        if (matchingMethods.isEmpty()) {
+            return null;
+        }
+
+        if (matchingMethods.size() > 1) {
+            error("Overloaded '%s' method not allowed in class '%s'", batchName, javaClass.getSimpleName());
+            return null;
+        }
+
+        Method method = matchingMethods.get(0);
+
+        if (!Modifier.isStatic(method.getModifiers())) {
+            error("Batch method '%s' in class '%s' is not static", batchName, javaClass.getSimpleName());
+            return null;
+        }
+
+        ListType resultsType = new ListType(graphqlFieldDef.getType());
+        if (!isTypeCompatible(resultsType, method.getReturnType(), method.getAnnotatedReturnType())) {
+            error("Method '%s' in class '%s' returns '%s' instead of expected '%s'",
+                    batchName, javaClass.getSimpleName(), method.getReturnType().getSimpleName(),
+                    typeToString(resultsType));
+            return null;
+        }
+
+        List<Parameter> methodParams = new ArrayList<>(Arrays.asList(method.getParameters()));
+        Parameter envParam = methodParams.isEmpty() ? null : methodParams.remove(0);
+        if (envParam == null || !List.class.equals(envParam.getType())
+                || !(envParam.getParameterizedType() instanceof ParameterizedType)
+                || !DataFetchingEnvironment.class.equals(
+                        ((ParameterizedType) envParam.getParameterizedType()).getActualTypeArguments()[0])) {
+            error("Method '%s' in class '%s' doesn't have a List of DataFetchingEnvironment as first parameter",
+                    batchName, javaClass.getSimpleName());
+            return null;
+        }
+
+        List<InputValueDefinition> fieldParams = graphqlFieldDef.getInputValueDefinitions();
+
+        if (methodParams.size() != fieldParams.size()) {
+            error("Method '%s' in class '%s' doesn't have the right number of arguments",
+                    batchName, javaClass.getSimpleName());
+            return null;
+        }
+
+        for (int i = 0; i < methodParams.size(); i++) {
+            Parameter param = methodParams.get(i);
+            ListType valuesType = new ListType(fieldParams.get(i).getType());
+            if (!isTypeCompatible(valuesType, param.getType(), param.getAnnotatedType())) {
+                error("Type mismatch in method '%s', argument '%d' in class '%s' " +
+                                "expected '%s', got '%s'",
+                        batchName, i + 1, javaClass.getSimpleName(), typeToString(valuesType),
+                        param.getType().getSimpleName());
+                return null;
+            }
+        }
+
+        BatchWindow batchWindow = method.getAnnotation(BatchWindow.class);
+        if (batchWindow != null && (batchWindow.value() < 0 || batchWindow.maximumSize() < 1)) {
+            error("Method '%s' in class '%s' has a negative batch window or a non-positive maximum batch size",
+                    batchName, javaClass.getSimpleName());
+            return null;
+        }
+
         return method;
     }
 
+    boolean isBatched(String typeName, String fieldName) {
+        Method method = resolverMap.getOrDefault(typeName, Collections.emptyMap()).get(fieldName);
+        return method != null && method.getName().startsWith("batch");
+    }
+
+    private boolean isCostMultiplier(Type graphqlType) {
+        if (graphqlType instanceof NonNullType) {
+            return isCostMultiplier(((NonNullType) graphqlType).getType());
+        }
+        return graphqlType instanceof ListType || "Int".equals(typeToString(graphqlType));
+    }
+
     private Method findGetter(Class<?> javaClass, String fieldName, Type fieldType) {
         String fetcherName = buildFetcherName("get", fieldName);
-        Method getter = findPublicMethod(javaClass, fetcherName, fieldType);
+        Method getter = findPublicMethod(javaClass, fetcherName, fieldType, false);
 
         if (getter == null && isTypeCompatible(fieldType, Boolean.class, null)) {
             fetcherName = buildFetcherName("is", fieldName);
-            getter = findPublicMethod(javaClass, fetcherName, fieldType);
+            getter = findPublicMethod(javaClass, fetcherName, fieldType, false);
         }
         return getter;
     }
 
-    private Method findPublicMethod(Class<?> javaClass, String methodName, Type fieldReturnType) {
-        List<Method> matchingMethods = Arrays.stream(javaClass.getMethods())
-                .filter(m -> m.getName().equals(methodName))
-                .collect(Collectors.toList());
+    /**
+     * Finds the only public method of a name whose return type is compatible with the type of a field. Fetch methods
+     * of subscription fields return a {@link Publisher} of the field's type instead.
+     */
+    private Method findPublicMethod(Class<?> javaClass, String methodName, Type fieldReturnType, boolean eventStream) {
+        List<Method> matchingMethods = ResolverClassInfo.of(javaClass).getPublicMethods(methodName);
 
         if (matchingMethods.size() == 0) {
             return null;
@@ -384,16 +1166,56 @@ public class ReflectionWiringFactory implements WiringFactory {
 
         Method method = matchingMethods.get(0);
 
-        if (!isTypeCompatible(fieldReturnType, method.getReturnType(), method.getAnnotatedReturnType())) {
+        boolean compatible = eventStream
+                ? Publisher.class.isAssignableFrom(method.getReturnType())
+                        && isValueTypeCompatible(fieldReturnType, method.getAnnotatedReturnType())
+                : isTypeCompatible(fieldReturnType, method.getReturnType(), method.getAnnotatedReturnType());
+        if (!compatible) {
+            String expectedType = eventStream
+                    ? "Publisher<" + typeToString(fieldReturnType) + ">"
+                    : typeToString(fieldReturnType);
             error("Method '%s' in class '%s' returns '%s' instead of expected '%s'",
-                    methodName, javaClass.getSimpleName(), method.getReturnType().getSimpleName(), typeToString(fieldReturnType));
+                    methodName, javaClass.getSimpleName(), method.getReturnType().getSimpleName(), expectedType);
+            return null;
+        }
+
+        if (returnsCursor(method) && !isReadByGetters(baseTypeName(fieldReturnType))) {
+            error("Method '%s' in class '%s' returns a Cursor but type '%s' has fields resolved by fetch methods",
+                    methodName, javaClass.getSimpleName(), baseTypeName(fieldReturnType));
             return null;
         }
 
         return method;
     }
 
+    private static boolean returnsCursor(Method method) {
+        java.lang.reflect.Type returnType = method.getGenericReturnType();
+        if (CompletionStage.class.isAssignableFrom(method.getReturnType())
+                && returnType instanceof ParameterizedType) {
+            returnType = ((ParameterizedType) returnType).getActualTypeArguments()[0];
+        }
+        if (returnType instanceof ParameterizedType) {
+            returnType = ((ParameterizedType) returnType).getRawType();
+        }
+        return returnType instanceof Class && Cursor.class.isAssignableFrom((Class<?>) returnType);
+    }
+
+    /**
+     * Checks that no field of an object type is resolved by a fetch method, which could read the element of a
+     * {@link Cursor} after it moved on. The class is checked directly, its type may not have been verified yet.
+     */
+    private boolean isReadByGetters(String typeName) {
+        Class<?> javaClass = objectTypeMap.get(typeName);
+        ResolverClassInfo classInfo = ResolverClassInfo.of(javaClass);
+        return ((ObjectTypeDefinition) typeDefinitions.get(typeName)).getFieldDefinitions().stream()
+                .allMatch(fieldDef -> classInfo.getPublicMethods(buildFetcherName("fetch", fieldDef.getName()))
+                        .isEmpty());
+    }
+
     private boolean isTypeCompatible(Type graphqlType, Class<?> javaType, AnnotatedType javaAnnotatedType) {
+        if (CompletionStage.class.isAssignableFrom(javaType)) {
+            return isValueTypeCompatible(graphqlType, javaAnnotatedType);
+        }
         if (graphqlType instanceof TypeName) {
             String typeName = typeToString(graphqlType);
             if (scalarTypeMap.containsKey(typeName)) {
@@ -408,7 +1230,8 @@ public class ReflectionWiringFactory implements WiringFactory {
                 return interfaceTypeMap.get(typeName) == javaType;
             }
         } else if (graphqlType instanceof ListType) {
-            if (!List.class.isAssignableFrom(javaType)) {
+            boolean cursor = Cursor.class.isAssignableFrom(javaType);
+            if (!cursor && !List.class.isAssignableFrom(javaType)) {
                 return false;
             }
             if (javaAnnotatedType == null || !(javaAnnotatedType instanceof AnnotatedParameterizedType)) {
@@ -421,7 +1244,14 @@ public class ReflectionWiringFactory implements WiringFactory {
 
             Class<?> javaInnerType = (Class<?>) parameterizedType.getAnnotatedActualTypeArguments()[0].getType();
             Type graphqlInnerType = ((ListType)graphqlType).getType();
-            return isTypeCompatible(graphqlInnerType, javaInnerType, null);
+            if (graphqlInnerType instanceof NonNullType) {
+                graphqlInnerType = ((NonNullType) graphqlInnerType).getType();
+            }
+            // the element of a cursor is a flyweight, only objects read by getters can be one
+            if (cursor && !objectTypeMap.containsKey(typeToString(graphqlInnerType))) {
+                return false;
+            }
+            return isTypeCompatible(((ListType)graphqlType).getType(), javaInnerType, null);
         } else if (graphqlType instanceof NonNullType) {
             return isTypeCompatible(((NonNullType) graphqlType).getType(), javaType, javaAnnotatedType);
         }
@@ -429,7 +1259,31 @@ public class ReflectionWiringFactory implements WiringFactory {
         return false;
     }
 
-    private String typeToString(Type graphqlType) {
+    /**
+     * Checks the type argument of a container of values, like a {@link CompletionStage} or a {@link Publisher}.
+     */
+    private boolean isValueTypeCompatible(Type graphqlType, AnnotatedType javaAnnotatedType) {
+        if (!(javaAnnotatedType instanceof AnnotatedParameterizedType)) {
+            return false;
+        }
+        AnnotatedType javaValueType = ((AnnotatedParameterizedType) javaAnnotatedType).getAnnotatedActualTypeArguments()[0];
+        java.lang.reflect.Type valueType = javaValueType.getType();
+        if (valueType instanceof ParameterizedType) {
+            valueType = ((ParameterizedType) valueType).getRawType();
+        }
+        return valueType instanceof Class && isTypeCompatible(graphqlType, (Class<?>) valueType, javaValueType);
+    }
+
+    private static String baseTypeName(Type graphqlType) {
+        if (graphqlType instanceof ListType) {
+            return baseTypeName(((ListType) graphqlType).getType());
+        } else if (graphqlType instanceof NonNullType) {
+            return baseTypeName(((NonNullType) graphqlType).getType());
+        }
+        return typeToString(graphqlType);
+    }
+
+    private static String typeToString(Type graphqlType) {
         if (graphqlType instanceof TypeName) {
             return ((TypeName)graphqlType).getName();
         } else if (graphqlType instanceof ListType) {
@@ -441,49 +1295,213 @@ public class ReflectionWiringFactory implements WiringFactory {
         }
     }
 
-    private DataFetcher buildDataFetcherFromMethod(Method method, List<InputValueDefinition> fieldParams) {
+    DataFetcher buildDataFetcherFromMethod(String typeName, String fieldName, Method method,
+                                           List<InputValueDefinition> fieldParams) {
+        String methodName = methodName(method);
+        String fieldKey = typeName + "." + fieldName;
+        LongAdder errorCounter = errorCounter(typeName, fieldName);
         return env -> {
-            List<Object> parameters = new ArrayList<>();
-            parameters.add(env);
+            Throwable failure = null;
+            boolean pending = false;
+            Object[] parameters = new Object[fieldParams.size() + 1];
+            parameters[0] = env;
 
+            ResolverInvocationEvent event = beginInvocation();
             try {
                 Object source = env.getSource();
                 if (source == null && !Modifier.isStatic(method.getModifiers())) {
                     source = method.getDeclaringClass().newInstance();
                 }
+                for (int i = 0; i < fieldParams.size(); i++) {
+                    parameters[i + 1] = convertArgument(env, fieldParams.get(i));
+                }
+                Object result = invokeWithinBulkheads(method, source, parameters, fieldKey);
+                if (result instanceof CompletionStage) {
+                    pending = true;
+                    commitInvocationOnCompletion(event, (CompletionStage<?>) result, typeName, fieldName, methodName);
+                    return classifyFailure((CompletionStage<?>) result, typeName, fieldName, errorCounter);
+                }
+                return result;
+            } catch (Exception e) {
+                ResolverException error = resolverException(typeName, fieldName, e, errorCounter);
+                failure = error.getCause();
+                throw error;
+            } finally {
+                if (!pending) {
+                    commitInvocation(event, typeName, fieldName, methodName, failure);
+                }
+            }
+        };
+    }
 
-                for (InputValueDefinition fieldParam : fieldParams) {
-                    Object paramValue = env.getArgument(fieldParam.getName());
-                    if (fieldParam.getType() instanceof TypeName) {
-                        String fieldName = typeToString(fieldParam.getType());
-
-                        Class<?> inputType = inputObjectTypeMap.get(fieldName);
-                        if (inputType != null) {
-                            Constructor<?> constructor = inputType.getConstructor(Map.class);
-                            Object parameter = constructor.newInstance((Map) paramValue);
-                            parameters.add(parameter);
-                            continue;
-                        }
+    DataFetcher<?> buildDataFetcherFromBatchMethod(String typeName, String fieldName, Method method,
+                                                   List<InputValueDefinition> fieldParams) {
+        String methodName = methodName(method);
+        String fieldKey = typeName + "." + fieldName;
+        LongAdder errorCounter = errorCounter(typeName, fieldName);
+        BatchWindow batchWindow = method.getAnnotation(BatchWindow.class);
+        MutationBatcher batcher = new MutationBatcher(fieldKey,
+                batchWindow == null ? Duration.ZERO : Duration.ofMillis(batchWindow.value()),
+                batchWindow == null ? Integer.MAX_VALUE : batchWindow.maximumSize(),
+                (environments, arguments) -> {
+                    Throwable failure = null;
+                    boolean pending = false;
+                    Object[] parameters = new Object[fieldParams.size() + 1];
+                    parameters[0] = environments;
+                    for (int i = 0; i < arguments.size(); i++) {
+                        parameters[i + 1] = arguments.get(i);
+                    }
 
+                    ResolverInvocationEvent event = beginInvocation();
+                    try {
+                        Object results = invokeWithinBulkheads(method, null, parameters, fieldKey);
+                        if (!(results instanceof CompletionStage)) {
+                            return CompletableFuture.completedFuture((List<?>) results);
+                        }
                         @SuppressWarnings("unchecked")
-                        Class<? extends Enum> enumType = (Class<? extends Enum>) enumTypeMap.get(fieldName);
-                        if (enumType != null) {
-                            Enum<?> parameter = Enum.valueOf(enumType, (String)paramValue);
-                            parameters.add(parameter);
-                            continue;
+                        CompletionStage<List<?>> stage = (CompletionStage<List<?>>) results;
+                        pending = true;
+                        commitInvocationOnCompletion(event, stage, typeName, fieldName, methodName);
+                        return classifyFailure(stage, typeName, fieldName, errorCounter);
+                    } catch (Exception e) {
+                        ResolverException error = resolverException(typeName, fieldName, e, errorCounter);
+                        failure = error.getCause();
+                        throw error;
+                    } finally {
+                        if (!pending) {
+                            commitInvocation(event, typeName, fieldName, methodName, failure);
                         }
                     }
-                    parameters.add(paramValue);
-                }
-                return method.invoke(source, parameters.toArray());
+                },
+                e -> resolverException(typeName, fieldName, e, errorCounter));
+        return env -> {
+            try {
+                return batcher.add(env, convertArguments(env, fieldParams));
             } catch (Exception e) {
-                throw new RuntimeException("Error invoking data fetcher: " + e.toString(), e);
+                throw resolverException(typeName, fieldName, e, errorCounter);
             }
         };
     }
 
-    private DataFetcher buildDataFetcherFromGetter(Method getter) {
+    /**
+     * Fails the returned future with the classified and counted failure of an asynchronous resolver, like
+     * failures thrown by resolvers are. A cancelled resolver future cancels the returned one and is not counted,
+     * cancelling the returned future leaves the resolver's alone, since it may be shared by a data loader's cache.
+     */
+    private <T> CompletableFuture<T> classifyFailure(CompletionStage<T> stage, String typeName, String fieldName,
+                                                     LongAdder errorCounter) {
+        CompletableFuture<T> classified = new CompletableFuture<>();
+        stage.whenComplete((value, exception) -> {
+            if (exception == null) {
+                classified.complete(value);
+            } else if (exception instanceof CancellationException) {
+                classified.cancel(false);
+            } else {
+                classified.completeExceptionally(resolverException(typeName, fieldName, exception, errorCounter));
+            }
+        });
+        return classified;
+    }
+
+    private List<Object> convertArguments(DataFetchingEnvironment env, List<InputValueDefinition> fieldParams)
+            throws Exception {
+        List<Object> parameters = new ArrayList<>(fieldParams.size());
+        for (InputValueDefinition fieldParam : fieldParams) {
+            parameters.add(convertArgument(env, fieldParam));
+        }
+        return parameters;
+    }
+
+    private Object convertArgument(DataFetchingEnvironment env, InputValueDefinition fieldParam) throws Exception {
+        Object paramValue = env.getArgument(fieldParam.getName());
+        if (fieldParam.getType() instanceof TypeName) {
+            String paramTypeName = typeToString(fieldParam.getType());
+
+            Class<?> inputType = inputObjectTypeMap.get(paramTypeName);
+            if (inputType != null) {
+                Constructor<?> constructor = ResolverClassInfo.of(inputType).getMapConstructor();
+                return constructor.newInstance((Map) paramValue);
+            }
+
+            @SuppressWarnings("unchecked")
+            Class<? extends Enum> enumType = (Class<? extends Enum>) enumTypeMap.get(paramTypeName);
+            if (enumType != null) {
+                return Enum.valueOf(enumType, (String)paramValue);
+            }
+        }
+        return paramValue;
+    }
+
+    private Object invokeWithinBulkheads(Method method, Object source, Object[] parameters, String fieldKey)
+            throws Exception {
+        if (warmingUp) {
+            return method.invoke(source, parameters);
+        }
+        Bulkhead classBulkhead = classBulkheads.get(method.getDeclaringClass());
+        Bulkhead fieldBulkhead = fieldBulkheads.get(fieldKey);
+        if (classBulkhead == null && fieldBulkhead == null) {
+            return method.invoke(source, parameters);
+        }
+
+        if (classBulkhead != null) {
+            classBulkhead.acquire();
+        }
+        if (fieldBulkhead != null) {
+            try {
+                fieldBulkhead.acquire();
+            } catch (RejectedExecutionException e) {
+                if (classBulkhead != null) {
+                    classBulkhead.cancel();
+                }
+                throw e;
+            }
+        }
+
+        Object result;
+        try {
+            result = method.invoke(source, parameters);
+        } catch (Throwable e) {
+            release(classBulkhead, fieldBulkhead, !isDependencyFailure(e));
+            throw e;
+        }
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete((value, exception) ->
+                    release(classBulkhead, fieldBulkhead, exception == null || !isDependencyFailure(exception)));
+        } else {
+            release(classBulkhead, fieldBulkhead, true);
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a failed call counts against its bulkheads. Failures classified as the caller's fault, like
+     * bad requests or missing items, and cancelled calls say nothing about the health of the dependency.
+     */
+    private boolean isDependencyFailure(Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof CancellationException) {
+            return false;
+        }
+        ResolverErrorClassifier classifier = errorClassifier;
+        return classifier.isDependencyFailure(classifier.classify(cause));
+    }
+
+    private void release(Bulkhead classBulkhead, Bulkhead fieldBulkhead, boolean success) {
+        if (fieldBulkhead != null) {
+            fieldBulkhead.release(success);
+        }
+        if (classBulkhead != null) {
+            classBulkhead.release(success);
+        }
+    }
+
+    DataFetcher buildDataFetcherFromGetter(String typeName, String fieldName, Method getter) {
+        String methodName = methodName(getter);
+        LongAdder errorCounter = errorCounter(typeName, fieldName);
         return env -> {
+            Throwable failure = null;
+
+            ResolverInvocationEvent event = beginInvocation();
             try {
                 Object source = env.getSource();
                 if (source == null && !Modifier.isStatic(getter.getModifiers())) {
@@ -492,12 +1510,16 @@ public class ReflectionWiringFactory implements WiringFactory {
 
                 return getter.invoke(source);
             } catch (Exception e) {
-                throw new RuntimeException("Error invoking data fetcher: " + e.toString(), e);
+                ResolverException error = resolverException(typeName, fieldName, e, errorCounter);
+                failure = error.getCause();
+                throw error;
+            } finally {
+                commitInvocation(event, typeName, fieldName, methodName, failure);
             }
         };
     }
 
-    private TypeResolver buildTypeResolver(String interfaceName) {
+    TypeResolver buildTypeResolver(String interfaceName) {
         Map<Class<?>, String> implementingClasses = interfacesImplemented.keySet().stream()
                 .filter(c -> interfacesImplemented.get(c).contains(interfaceName))
                 .distinct()
@@ -510,11 +1532,40 @@ public class ReflectionWiringFactory implements WiringFactory {
         };
     }
 
+    private LongAdder errorCounter(String typeName, String fieldName) {
+        return errorCounters.computeIfAbsent(typeName + "." + fieldName, k -> new LongAdder());
+    }
+
+    private ResolverException resolverException(String typeName, String fieldName, Throwable e,
+                                                LongAdder errorCounter) {
+        Throwable cause = unwrap(e);
+        if (!warmingUp) {
+            errorCounter.increment();
+        }
+        return new ResolverException(typeName, fieldName, errorClassifier.classify(cause), cause);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof InvocationTargetException) {
+            cause = ((InvocationTargetException) cause).getTargetException();
+        }
+        return cause;
+    }
+
+    private String methodName(Method method) {
+        return method.getDeclaringClass().getName() + "." + method.getName();
+    }
+
     private String buildFetcherName(String prefix, String fieldName) {
         return prefix + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
     }
 
     private void error(String message, Object... args) {
-        errors.add(String.format(message, args));
+        List<String> sink = errorSink.get();
+        (sink != null ? sink : errors).add(String.format(message, args));
     }
 }
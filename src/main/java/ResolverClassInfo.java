@@ -0,0 +1,64 @@
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * What reflection tells about a resolver class, computed once per class and shared by every
+ * {@link ReflectionWiringFactory} in the process. Held in a {@link ClassValue}, so the metadata goes away together
+ * with the class when its class loader is unloaded. Public methods are grouped by name up front, getter accessors
+ * are compiled on first use and then reused by all factories wiring the class.
+ */
+final class ResolverClassInfo {
+    private static final ClassValue<ResolverClassInfo> INFOS = new ClassValue<ResolverClassInfo>() {
+        @Override
+        protected ResolverClassInfo computeValue(Class<?> javaClass) {
+            return new ResolverClassInfo(javaClass);
+        }
+    };
+
+    private final Map<String, List<Method>> publicMethods;
+    private final Constructor<?> mapConstructor;
+    private final Map<Method, Function<Object, Object>> getterAccessors = new ConcurrentHashMap<>();
+
+    private ResolverClassInfo(Class<?> javaClass) {
+        Map<String, List<Method>> methods = new HashMap<>();
+        for (Method method : javaClass.getMethods()) {
+            methods.computeIfAbsent(method.getName(), k -> new ArrayList<>(1)).add(method);
+        }
+        methods.replaceAll((name, overloads) -> Collections.unmodifiableList(overloads));
+        this.publicMethods = Collections.unmodifiableMap(methods);
+
+        Constructor<?> constructor;
+        try {
+            constructor = javaClass.getConstructor(Map.class);
+        } catch (NoSuchMethodException e) {
+            constructor = null;
+        }
+        this.mapConstructor = constructor;
+    }
+
+    static ResolverClassInfo of(Class<?> javaClass) {
+        return INFOS.get(javaClass);
+    }
+
+    List<Method> getPublicMethods(String name) {
+        return publicMethods.getOrDefault(name, Collections.emptyList());
+    }
+
+    boolean hasPublicMethods() {
+        return !publicMethods.isEmpty();
+    }
+
+    /**
+     * Returns the public constructor taking a {@code Map}, used to create input objects, or null if there is none.
+     */
+    Constructor<?> getMapConstructor() {
+        return mapConstructor;
+    }
+
+    Function<Object, Object> getterAccessor(Method getter, Function<Method, Function<Object, Object>> compiler) {
+        return getterAccessors.computeIfAbsent(getter, compiler);
+    }
+}
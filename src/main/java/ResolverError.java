@@ -0,0 +1,66 @@
+import graphql.ErrorType;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorHelper;
+import graphql.execution.ExecutionPath;
+import graphql.language.SourceLocation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ResolverError implements GraphQLError {
+    private final List<Object> path;
+    private final List<SourceLocation> locations;
+    private final ResolverException exception;
+
+    public ResolverError(ExecutionPath path, SourceLocation location, ResolverException exception) {
+        this.path = path.toList();
+        this.locations = Collections.singletonList(location);
+        this.exception = exception;
+    }
+
+    public ResolverException getException() {
+        return exception;
+    }
+
+    @Override
+    public String getMessage() {
+        return exception.getMessage();
+    }
+
+    @Override
+    public List<SourceLocation> getLocations() {
+        return locations;
+    }
+
+    @Override
+    public List<Object> getPath() {
+        return path;
+    }
+
+    @Override
+    public ErrorType getErrorType() {
+        return ErrorType.DataFetchingException;
+    }
+
+    @Override
+    public Map<String, Object> getExtensions() {
+        return exception.getExtensions();
+    }
+
+    @Override
+    public String toString() {
+        return "ResolverError{path=" + path + ", classification=" + exception.getClassification() +
+                ", message=" + getMessage() + "}";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return GraphqlErrorHelper.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return GraphqlErrorHelper.hashCode(this);
+    }
+}
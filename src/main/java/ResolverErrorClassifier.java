@@ -0,0 +1,56 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+@FunctionalInterface
+public interface ResolverErrorClassifier {
+    String INTERNAL = "INTERNAL";
+    String BAD_REQUEST = "BAD_REQUEST";
+    String NOT_FOUND = "NOT_FOUND";
+    String UNSUPPORTED = "UNSUPPORTED";
+    String FORBIDDEN = "FORBIDDEN";
+    String TIMEOUT = "TIMEOUT";
+    String UNAVAILABLE = "UNAVAILABLE";
+
+    ResolverErrorClassifier DEFAULT = cause -> {
+        if (cause instanceof IllegalArgumentException) {
+            return BAD_REQUEST;
+        } else if (cause instanceof NoSuchElementException) {
+            return NOT_FOUND;
+        } else if (cause instanceof UnsupportedOperationException) {
+            return UNSUPPORTED;
+        } else if (cause instanceof SecurityException) {
+            return FORBIDDEN;
+        } else if (cause instanceof TimeoutException) {
+            return TIMEOUT;
+        } else if (cause instanceof RejectedExecutionException) {
+            return UNAVAILABLE;
+        }
+        return INTERNAL;
+    };
+
+    String classify(Throwable cause);
+
+    /**
+     * Returns whether failures of the given classification tell that the dependency behind a resolver is unhealthy,
+     * and so count against its bulkheads. Classifiers with classifications of their own override this.
+     */
+    default boolean isDependencyFailure(String classification) {
+        return classification.equals(INTERNAL) || classification.equals(TIMEOUT) || classification.equals(UNAVAILABLE);
+    }
+
+    static ResolverErrorClassifier byType(Map<Class<? extends Throwable>, String> classifications) {
+        Map<Class<? extends Throwable>, String> copy = new HashMap<>(classifications);
+        return cause -> {
+            for (Class<?> type = cause.getClass(); type != null; type = type.getSuperclass()) {
+                String classification = copy.get(type);
+                if (classification != null) {
+                    return classification;
+                }
+            }
+            return INTERNAL;
+        };
+    }
+}
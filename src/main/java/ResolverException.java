@@ -0,0 +1,55 @@
+import graphql.ErrorType;
+import graphql.GraphQLError;
+import graphql.language.SourceLocation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ResolverException extends RuntimeException implements GraphQLError {
+    private static final long serialVersionUID = 1L;
+
+    private final String typeName;
+    private final String fieldName;
+    private final String classification;
+
+    public ResolverException(String typeName, String fieldName, String classification, Throwable cause) {
+        super(null, cause, false, false);
+        this.typeName = typeName;
+        this.fieldName = fieldName;
+        this.classification = classification;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getClassification() {
+        return classification;
+    }
+
+    @Override
+    public String getMessage() {
+        Throwable cause = getCause();
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+    }
+
+    @Override
+    public List<SourceLocation> getLocations() {
+        return null;
+    }
+
+    @Override
+    public ErrorType getErrorType() {
+        return ErrorType.DataFetchingException;
+    }
+
+    @Override
+    public Map<String, Object> getExtensions() {
+        return Collections.singletonMap("classification", classification);
+    }
+}
@@ -0,0 +1,33 @@
+import graphql.execution.DataFetcherExceptionHandler;
+import graphql.execution.DataFetcherExceptionHandlerParameters;
+import graphql.execution.SimpleDataFetcherExceptionHandler;
+
+import java.util.concurrent.CompletionException;
+
+public class ResolverExceptionHandler implements DataFetcherExceptionHandler {
+    private final DataFetcherExceptionHandler fallback;
+
+    public ResolverExceptionHandler() {
+        this(new SimpleDataFetcherExceptionHandler());
+    }
+
+    public ResolverExceptionHandler(DataFetcherExceptionHandler fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void accept(DataFetcherExceptionHandlerParameters parameters) {
+        Throwable exception = parameters.getException();
+        if (exception instanceof CompletionException && exception.getCause() != null) {
+            exception = exception.getCause();
+        }
+
+        if (exception instanceof ResolverException) {
+            ResolverError error = new ResolverError(parameters.getPath(),
+                    parameters.getField().getSourceLocation(), (ResolverException) exception);
+            parameters.getExecutionContext().addError(error, parameters.getPath());
+        } else {
+            fallback.accept(parameters);
+        }
+    }
+}
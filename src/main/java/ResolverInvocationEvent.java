@@ -0,0 +1,44 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("graphql.reflection.ResolverInvocation")
+@Label("Resolver Invocation")
+@Description("Invocation of a reflection wired resolver method")
+@Category({"GraphQL", "Reflection Wiring"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class ResolverInvocationEvent extends jdk.jfr.Event {
+    public static final String SUCCESS = "SUCCESS";
+    public static final String FAILURE = "FAILURE";
+
+    @Label("Type Name")
+    String typeName;
+
+    @Label("Field Name")
+    String fieldName;
+
+    @Label("Method")
+    String method;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Exception")
+    String exception;
+
+    void commit(String typeName, String fieldName, String method, Throwable failure) {
+        end();
+        if (shouldCommit()) {
+            this.typeName = typeName;
+            this.fieldName = fieldName;
+            this.method = method;
+            this.outcome = failure == null ? SUCCESS : FAILURE;
+            this.exception = failure == null ? null : failure.getClass().getName();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLError;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.NoOpInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import resolver.Cursor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Guards executions against results much larger than their cost suggested. Every value returned by a data fetcher
+ * counts as one result node, every element of a returned list as one more, and adds a rough estimate of its heap
+ * size to the byte budget. Once a limit is exceeded, fields whose asynchronous fetches are still outstanding fail at
+ * once, further fetches return null without calling the resolver, and the execution's data is replaced by a single
+ * error. The futures of outstanding fetches are left alone rather than cancelled, since they may be shared, for
+ * example by a data loader's cache.
+ */
+public class ResultLimitInstrumentation extends NoOpInstrumentation {
+    private final long maximumNodes;
+    private final int maximumListLength;
+    private final long maximumBytes;
+
+    public ResultLimitInstrumentation(long maximumNodes, int maximumListLength, long maximumBytes) {
+        if (maximumNodes < 1 || maximumListLength < 0 || maximumBytes < 1) {
+            throw new IllegalArgumentException(String.format("Invalid result limits: %d nodes, %d list items, %d bytes",
+                    maximumNodes, maximumListLength, maximumBytes));
+        }
+        this.maximumNodes = maximumNodes;
+        this.maximumListLength = maximumListLength;
+        this.maximumBytes = maximumBytes;
+    }
+
+    public long getMaximumNodes() {
+        return maximumNodes;
+    }
+
+    public int getMaximumListLength() {
+        return maximumListLength;
+    }
+
+    public long getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    @Override
+    public InstrumentationState createState() {
+        return new LimitState();
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters) {
+        LimitState state = parameters.getInstrumentationState();
+        return env -> {
+            if (state.isExceeded()) {
+                return null;
+            }
+            Object value = dataFetcher.get(env);
+            if (value instanceof CompletionStage) {
+                CompletableFuture<Object> field = new CompletableFuture<>();
+                state.pending.add(field);
+                ((CompletionStage<?>) value).whenComplete((result, exception) -> {
+                    state.pending.remove(field);
+                    count(state, env.getFieldTypeInfo().getPath().toString(), result);
+                    if (exception != null) {
+                        field.completeExceptionally(exception);
+                    } else {
+                        field.complete(result);
+                    }
+                });
+                String reason = state.reason.get();
+                if (reason != null) {
+                    // exceeded by another field while this one was being registered
+                    field.completeExceptionally(new AbortExecutionException(reason));
+                }
+                return field;
+            }
+            count(state, env.getFieldTypeInfo().getPath().toString(), value);
+            return value;
+        };
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult,
+                                                                        InstrumentationExecutionParameters parameters) {
+        LimitState state = parameters.getInstrumentationState();
+        String reason = state.reason.get();
+        if (reason == null) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+        return CompletableFuture.completedFuture(new ExecutionResultImpl(null,
+                Collections.<GraphQLError>singletonList(new AbortExecutionException(reason)),
+                executionResult.getExtensions()));
+    }
+
+    private void count(LimitState state, String path, Object value) {
+        if (value == null || state.isExceeded()) {
+            return;
+        }
+        long nodes = 1;
+        if (value instanceof Collection || value instanceof Cursor) {
+            int size = listSize(value);
+            if (size > maximumListLength) {
+                state.exceed(String.format("Field '%s' returned %d items, more than the maximum of %d",
+                        path, size, maximumListLength));
+                return;
+            }
+            nodes += size;
+        }
+        if (state.nodes.addAndGet(nodes) > maximumNodes) {
+            state.exceed(String.format("Result exceeded the maximum of %d nodes", maximumNodes));
+        } else if (state.bytes.addAndGet(estimateSize(value)) > maximumBytes) {
+            state.exceed(String.format("Result exceeded the budget of %d bytes", maximumBytes));
+        }
+    }
+
+    private static long estimateSize(Object value) {
+        if (value instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) value).length();
+        } else if (value instanceof Collection || value instanceof Cursor) {
+            return 24 + 8L * listSize(value);
+        } else if (value instanceof Map) {
+            return 48 + 40L * ((Map<?, ?>) value).size();
+        }
+        return 16;
+    }
+
+    private static int listSize(Object list) {
+        return list instanceof Cursor ? ((Cursor<?>) list).size() : ((Collection<?>) list).size();
+    }
+
+    private static class LimitState implements InstrumentationState {
+        private final AtomicLong nodes = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicReference<String> reason = new AtomicReference<>();
+        private final Set<CompletableFuture<Object>> pending = ConcurrentHashMap.newKeySet();
+
+        private boolean isExceeded() {
+            return reason.get() != null;
+        }
+
+        private void exceed(String message) {
+            if (reason.compareAndSet(null, message)) {
+                pending.forEach(field -> field.completeExceptionally(new AbortExecutionException(message)));
+            }
+        }
+    }
+}
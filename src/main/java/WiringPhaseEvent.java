@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("graphql.reflection.WiringPhase")
+@Label("Wiring Phase")
+@Description("A phase of the construction of a ReflectionWiringFactory")
+@Category({"GraphQL", "Reflection Wiring"})
+@StackTrace(false)
+public class WiringPhaseEvent extends jdk.jfr.Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Type Count")
+    int typeCount;
+
+    @Label("Error Count")
+    int errorCount;
+
+    void commit(String phase, int typeCount, int errorCount) {
+        end();
+        if (shouldCommit()) {
+            this.phase = phase;
+            this.typeCount = typeCount;
+            this.errorCount = errorCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package hotel;
+
+import java.util.List;
+
+public class Hotel {
+    private int id;
+    private String name;
+    private List<Room> rooms;
+
+    public Hotel(int id, String name, List<Room> rooms) {
+        this.id = id;
+        this.name = name;
+        this.rooms = rooms;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+}
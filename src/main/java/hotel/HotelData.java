@@ -0,0 +1,58 @@
+package hotel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class HotelData {
+    private static final HotelData SHARED = generate(10, 3, 3, 42);
+
+    private final List<Hotel> hotels;
+
+    private HotelData(List<Hotel> hotels) {
+        this.hotels = Collections.unmodifiableList(hotels);
+    }
+
+    /**
+     * Returns a small data set served to executions without a {@code HotelData} context.
+     */
+    public static HotelData shared() {
+        return SHARED;
+    }
+
+    public static HotelData generate(int hotelCount, int roomsPerHotel, int facilitiesPerRoom, long seed) {
+        Random random = new Random(seed);
+        List<Hotel> hotels = new ArrayList<>(hotelCount);
+        for (int h = 1; h <= hotelCount; h++) {
+            List<Room> rooms = new ArrayList<>(roomsPerHotel);
+            for (int r = 1; r <= roomsPerHotel; r++) {
+                int roomId = h * 1000 + r;
+                int facilityCount = facilitiesPerRoom == 0 ? 0 : 1 + random.nextInt(facilitiesPerRoom);
+                List<Facility> facilities = new ArrayList<>(facilityCount);
+                for (int f = 1; f <= facilityCount; f++) {
+                    int facilityId = roomId * 100 + f;
+                    facilities.add(new Facility(facilityId, "Facility" + facilityId));
+                }
+                rooms.add(new Room(roomId, "MyRoom" + roomId, facilities));
+            }
+            hotels.add(new Hotel(h, "MyHotel" + h, rooms));
+        }
+        return new HotelData(hotels);
+    }
+
+    public Hotel getHotel(int id) {
+        if (id < 1 || id > hotels.size()) {
+            return null;
+        }
+        return hotels.get(id - 1);
+    }
+
+    public List<Hotel> getHotels() {
+        return hotels;
+    }
+
+    public int getHotelCount() {
+        return hotels.size();
+    }
+}
@@ -0,0 +1,27 @@
+package hotel;
+
+import java.util.List;
+
+public class Room {
+    private int id;
+    private String name;
+    private List<Facility> facilities;
+
+    public Room(int id, String name, List<Facility> facilities) {
+        this.id = id;
+        this.name = name;
+        this.facilities = facilities;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Facility> getFacilities() {
+        return facilities;
+    }
+}
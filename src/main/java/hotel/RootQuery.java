@@ -0,0 +1,35 @@
+package hotel;
+
+import graphql.schema.DataFetchingEnvironment;
+import resolver.Cost;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RootQuery {
+    public static Hotel fetchHotel(DataFetchingEnvironment env, Integer id) {
+        HotelData data = data(env);
+        if (id == null) {
+            return null;
+        }
+        return data.getHotel(id);
+    }
+
+    @Cost(multipliers = "ids")
+    public static List<Hotel> fetchHotels(DataFetchingEnvironment env, List<Integer> ids) {
+        HotelData data = data(env);
+        if (ids == null) {
+            return data.getHotels();
+        }
+        List<Hotel> hotels = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            hotels.add(id == null ? null : data.getHotel(id));
+        }
+        return hotels;
+    }
+
+    private static HotelData data(DataFetchingEnvironment env) {
+        Object context = env.getContext();
+        return context instanceof HotelData ? (HotelData) context : HotelData.shared();
+    }
+}
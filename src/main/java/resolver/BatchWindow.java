@@ -0,0 +1,16 @@
+package resolver;
+
+import java.lang.annotation.*;
+
+/**
+ * Lets the annotated batch method of a mutation field collect calls for the given number of milliseconds, across
+ * requests, before performing them together. A batch holding the maximum number of calls is performed right away.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface BatchWindow {
+    long value();
+
+    int maximumSize() default Integer.MAX_VALUE;
+}
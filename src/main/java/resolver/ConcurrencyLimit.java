@@ -0,0 +1,14 @@
+package resolver;
+
+import java.lang.annotation.*;
+
+/**
+ * Limits how many calls of the annotated fetch method, or of all fetch methods of the annotated class, may run at
+ * the same time. The limit adapts to failures between one and the given maximum, calls over it fail right away.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ConcurrencyLimit {
+    int value();
+}
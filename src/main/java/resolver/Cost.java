@@ -0,0 +1,17 @@
+package resolver;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares what resolving a field with the annotated fetch method costs. The cost of the field's selections is
+ * multiplied by the arguments named in {@link #multipliers()}, by the size of list arguments and by the value of Int
+ * arguments, so a field fetching a list of ids can be charged for every id requested.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cost {
+    int value() default 1;
+
+    String[] multipliers() default {};
+}
@@ -0,0 +1,44 @@
+package resolver;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Rows of a list field read through one reusable element, for lists backed by columns or mapped buffers that
+ * would otherwise need an object per row. A resolver may return a cursor wherever a list of an object type is
+ * expected, and the element's getters then read the row the element was last moved to. The element is moved from
+ * row to row while the list is completed, so its type may only have fields resolved by getters, and resolvers
+ * must not keep it.
+ */
+public interface Cursor<T> extends Iterable<T> {
+    int size();
+
+    /**
+     * Moves the element to a row and returns it, rows are numbered from 0.
+     */
+    T moveTo(int row);
+
+    /**
+     * Returns an iterator moving the element over all rows in order, {@link Iterator#next()} returns the same
+     * element every time.
+     */
+    @Override
+    default Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return moveTo(row++);
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package resolver;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The point in time by which a resolver should have produced its value. While a fetch method runs, the deadline of
+ * its field is available from {@link #current()}, so long running resolvers can check it or hand the remaining time
+ * on to the services they call. Work continued on other threads keeps the deadline when wrapped with
+ * {@link #wrap(Supplier)} or {@link #wrap(Runnable)}.
+ */
+public final class Deadline {
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE, true);
+
+    private static final Duration MAXIMUM_TIMEOUT = Duration.ofNanos(Long.MAX_VALUE / 4);
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long nanoTime;
+    private final boolean infinite;
+
+    private Deadline(long nanoTime, boolean infinite) {
+        this.nanoTime = nanoTime;
+        this.infinite = infinite;
+    }
+
+    public static Deadline after(Duration timeout) {
+        // capped so that the deadline stays comparable with System.nanoTime() without overflowing
+        long nanos = timeout.compareTo(MAXIMUM_TIMEOUT) > 0 ? MAXIMUM_TIMEOUT.toNanos() : timeout.toNanos();
+        return new Deadline(System.nanoTime() + Math.max(nanos, 0), false);
+    }
+
+    /**
+     * Returns the deadline of the resolver running on this thread, or {@link #NONE} outside of deadline bound calls.
+     */
+    public static Deadline current() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null ? deadline : NONE;
+    }
+
+    public boolean isExpired() {
+        return !infinite && System.nanoTime() - nanoTime >= 0;
+    }
+
+    public boolean isNone() {
+        return infinite;
+    }
+
+    public long remaining(TimeUnit unit) {
+        if (infinite) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(Math.max(nanoTime - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+    }
+
+    public Deadline min(Deadline other) {
+        if (infinite) {
+            return other;
+        } else if (other.infinite) {
+            return this;
+        }
+        return nanoTime - other.nanoTime <= 0 ? this : other;
+    }
+
+    public <T> T call(Supplier<T> supplier) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public <T> Supplier<T> wrap(Supplier<T> supplier) {
+        return () -> call(supplier);
+    }
+
+    public Runnable wrap(Runnable runnable) {
+        return () -> call(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    @Override
+    public String toString() {
+        return infinite ? "Deadline{none}" : "Deadline{remaining=" + remaining(TimeUnit.MILLISECONDS) + "ms}";
+    }
+}
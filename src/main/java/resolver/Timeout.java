@@ -0,0 +1,15 @@
+package resolver;
+
+import java.lang.annotation.*;
+
+/**
+ * Bounds how long the annotated fetch method may take to produce its value, in milliseconds. A value that is not
+ * ready in time is replaced by a field error. The pending work is not cancelled, since its future may be shared, it
+ * can check {@link Deadline#current()} to stop early.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Timeout {
+    long value();
+}
@@ -0,0 +1,291 @@
+import com.sun.management.ThreadMXBean;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import testresolvers.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static graphql.schema.DataFetchingEnvironmentBuilder.newDataFetchingEnvironment;
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+import static org.junit.Assert.assertTrue;
+
+public class AllocationBudgetTest {
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int RESOLVER_ITERATIONS = 10_000;
+    private static final int QUERY_ITERATIONS = 500;
+
+    private static final String SCALAR_SCHEMA = "" +
+            "    schema {                                         \n" +
+            "        query: ScalarTestQuery                       \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type ScalarTestQuery {                           \n" +
+            "        booleanScalar:          Boolean              \n" +
+            "        booleanPrimitiveScalar: Boolean              \n" +
+            "        integerScalar:          Int                  \n" +
+            "        integerPrimitiveScalar: Int                  \n" +
+            "        doubleScalar:           Float                \n" +
+            "        doublePrimitiveScalar:  Float                \n" +
+            "        stringScalar:           String               \n" +
+            "        IDScalar:               ID                   \n" +
+            "                                                     \n" +
+            "        field(boolArg: Boolean, boolArg2: Boolean,   \n" +
+            "              intArg: Int, intArg2: Int,             \n" +
+            "              doubleArg: Float, doubleArg2: Float,   \n" +
+            "              strArg:String, idArg: ID): String      \n" +
+            "    }";
+
+    private static final String LIST_SCHEMA = "" +
+            "    schema {                                         \n" +
+            "        query: ListTestQuery                         \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type ListTestQuery {                             \n" +
+            "        field1: [Int]                                \n" +
+            "        field2: [TypeA]                              \n" +
+            "        field3(arg: [Int]): String                   \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type TypeA {                                     \n" +
+            "        field1: String                               \n" +
+            "        field2: Int                                  \n" +
+            "    }                                                \n";
+
+    private static final String OBJECT_SCHEMA = "" +
+            "    schema {                                         \n" +
+            "        query: ObjectTestQuery                       \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    input InputTypeA {                               \n" +
+            "        field1: String                               \n" +
+            "        field2: Int                                  \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type TypeA {                                     \n" +
+            "        field1: String                               \n" +
+            "        field2: Int                                  \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type ObjectTestQuery {                           \n" +
+            "        fieldA: TypeA                                \n" +
+            "        fieldB(obj: InputTypeA): String              \n" +
+            "    }                                                \n";
+
+    private static final String ENUM_SCHEMA = "" +
+            "    schema {                                         \n" +
+            "        query: EnumTestQuery                         \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type EnumTestQuery {                             \n" +
+            "        field1(e: TestEnum): String                  \n" +
+            "        field2: TestEnum                             \n" +
+            "    }                                                \n" +
+            "    enum TestEnum {                                  \n" +
+            "        ONE                                          \n" +
+            "        TWO                                          \n" +
+            "        THREE                                        \n" +
+            "    }                                                \n";
+
+    private static final String SHOP_SCHEMA = "" +
+            "    schema {                                         \n" +
+            "        query: BatchLoaderTest                       \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type BatchLoaderTest {                           \n" +
+            "        shops: [Shop]                                \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type Shop {                                      \n" +
+            "        id: Int                                      \n" +
+            "        name: String                                 \n" +
+            "        departments: [Department]                    \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type Department {                                \n" +
+            "        id: Int                                      \n" +
+            "        name: String                                 \n" +
+            "        products: [Product]                          \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type Product {                                   \n" +
+            "        id: Int                                      \n" +
+            "        name: String                                 \n" +
+            "    }                                                \n";
+
+    private ThreadMXBean threadBean;
+
+    @Before
+    public void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof ThreadMXBean);
+        threadBean = (ThreadMXBean) bean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void getterResolver() throws Exception {
+        DataFetcher<?> fetcher = fetcher(Arrays.asList(BatchLoaderTest.class, Shop.class, Department.class,
+                Product.class), SHOP_SCHEMA, "Product", "name");
+        DataFetchingEnvironment env = newDataFetchingEnvironment().source(new Product(1)).build();
+        assertBudget("Product.name getter", 128, perInvocation(() -> fetcher.get(env)));
+    }
+
+    @Test
+    public void fetcherWithoutArguments() throws Exception {
+        DataFetcher<?> fetcher = fetcher(Collections.singletonList(ScalarTestQuery.class), SCALAR_SCHEMA,
+                "ScalarTestQuery", "stringScalar");
+        DataFetchingEnvironment env = newDataFetchingEnvironment().build();
+        assertBudget("ScalarTestQuery.stringScalar", 320, perInvocation(() -> fetcher.get(env)));
+    }
+
+    @Test
+    public void fetcherWithScalarArguments() throws Exception {
+        DataFetcher<?> fetcher = fetcher(Collections.singletonList(ScalarTestQuery.class), SCALAR_SCHEMA,
+                "ScalarTestQuery", "field");
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("boolArg", true);
+        arguments.put("boolArg2", false);
+        arguments.put("intArg", 1);
+        arguments.put("intArg2", 2);
+        arguments.put("doubleArg", 3.0);
+        arguments.put("doubleArg2", 4.0);
+        arguments.put("strArg", "str");
+        arguments.put("idArg", "id");
+        DataFetchingEnvironment env = newDataFetchingEnvironment().arguments(arguments).build();
+        // the resolver itself joins its arguments into a new string through a stream
+        assertBudget("ScalarTestQuery.field", 1600, perInvocation(() -> fetcher.get(env)));
+    }
+
+    @Test
+    public void fetcherWithListArgument() throws Exception {
+        DataFetcher<?> fetcher = fetcher(Arrays.asList(ListTestQuery.class, TypeA.class), LIST_SCHEMA,
+                "ListTestQuery", "field3");
+        DataFetchingEnvironment env = newDataFetchingEnvironment()
+                .arguments(Collections.singletonMap("arg", Arrays.asList(1, 2, 3)))
+                .build();
+        assertBudget("ListTestQuery.field3", 1400, perInvocation(() -> fetcher.get(env)));
+    }
+
+    @Test
+    public void fetcherWithEnumArgument() throws Exception {
+        DataFetcher<?> fetcher = fetcher(Arrays.asList(EnumTestQuery.class, TestEnum.class), ENUM_SCHEMA,
+                "EnumTestQuery", "field1");
+        DataFetchingEnvironment env = newDataFetchingEnvironment()
+                .arguments(Collections.singletonMap("e", "TWO"))
+                .build();
+        assertBudget("EnumTestQuery.field1", 320, perInvocation(() -> fetcher.get(env)));
+    }
+
+    @Test
+    public void fetcherWithInputObjectArgument() throws Exception {
+        DataFetcher<?> fetcher = fetcher(Arrays.asList(ObjectTestQuery.class, InputTypeA.class, TypeA.class),
+                OBJECT_SCHEMA, "ObjectTestQuery", "fieldB");
+        Map<String, Object> input = new HashMap<>();
+        input.put("field1", "a");
+        input.put("field2", 1);
+        DataFetchingEnvironment env = newDataFetchingEnvironment()
+                .arguments(Collections.singletonMap("obj", input))
+                .build();
+        assertBudget("ObjectTestQuery.fieldB", 768, perInvocation(() -> fetcher.get(env)));
+    }
+
+    @Test
+    public void scalarQuery() throws Exception {
+        GraphQL graphQL = graphQL(Collections.singletonList(ScalarTestQuery.class), SCALAR_SCHEMA);
+        ExecutionInput input = ExecutionInput.newExecutionInput()
+                .query("{ booleanScalar, integerPrimitiveScalar, doubleScalar, stringScalar, IDScalar, " +
+                        "field(boolArg:true, boolArg2:false, intArg:1, intArg2:2, " +
+                        "doubleArg:3.0, doubleArg2:4.0, strArg:\"str\", idArg:\"id\") }")
+                .build();
+        assertBudget("scalar query", 220_000, perQuery(graphQL, input));
+    }
+
+    @Test
+    public void listQuery() throws Exception {
+        GraphQL graphQL = graphQL(Arrays.asList(ListTestQuery.class, TypeA.class), LIST_SCHEMA);
+        ExecutionInput input = ExecutionInput.newExecutionInput()
+                .query("{ field1, field2 { field1, field2 }, field3(arg: [1, 2, 3]) }")
+                .build();
+        assertBudget("list query", 128_000, perQuery(graphQL, input));
+    }
+
+    @Test
+    public void shopQuery() throws Exception {
+        GraphQL graphQL = graphQL(Arrays.asList(BatchLoaderTest.class, Shop.class, Department.class,
+                Product.class), SHOP_SCHEMA);
+        ExecutionInput input = ExecutionInput.newExecutionInput()
+                .query("{ shops { id, name, departments { id, name, products { id, name } } } }")
+                .context(new AtomicInteger())
+                .build();
+        assertBudget("shop query", 512_000, perQuery(graphQL, input));
+    }
+
+    private long perInvocation(Callable<Object> invocation) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            invocation.call();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < RESOLVER_ITERATIONS; i++) {
+            invocation.call();
+        }
+        return (threadBean.getThreadAllocatedBytes(threadId) - before) / RESOLVER_ITERATIONS;
+    }
+
+    private long perQuery(GraphQL graphQL, ExecutionInput input) {
+        for (int i = 0; i < QUERY_ITERATIONS; i++) {
+            assertNoErrors(graphQL.execute(input));
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < QUERY_ITERATIONS; i++) {
+            graphQL.execute(input);
+        }
+        return (threadBean.getThreadAllocatedBytes(threadId) - before) / QUERY_ITERATIONS;
+    }
+
+    private static void assertBudget(String name, long budget, long allocated) {
+        assertTrue(String.format("%s allocated %d bytes per operation, budget is %d", name, allocated, budget),
+                allocated <= budget);
+    }
+
+    private static void assertNoErrors(ExecutionResult result) {
+        if (!result.getErrors().isEmpty()) {
+            throw new RuntimeException(result.getErrors().toString());
+        }
+    }
+
+    private static DataFetcher<?> fetcher(Collection<Class<?>> classes, String schema,
+                                          String typeName, String fieldName) {
+        return schema(classes, schema).getObjectType(typeName).getFieldDefinition(fieldName).getDataFetcher();
+    }
+
+    private static GraphQL graphQL(Collection<Class<?>> classes, String schema) {
+        return GraphQL.newGraphQL(schema(classes, schema)).build();
+    }
+
+    private static GraphQLSchema schema(Collection<Class<?>> classes, String schema) {
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse(schema);
+        ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(typeDefinitionRegistry, classes);
+        for (String error : wiringFactory.getErrors()) {
+            throw new RuntimeException(error);
+        }
+        RuntimeWiring runtimeWiring = newRuntimeWiring().wiringFactory(wiringFactory).build();
+        return new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+    }
+}
@@ -0,0 +1,101 @@
+import graphql.ExceptionWhileDataFetching;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.schema.idl.SchemaParser;
+import org.junit.Test;
+import testresolvers.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+
+public class BatchingMutationStrategyTest {
+    private static final String SCHEMA = "" +
+            "    schema {                                             \n" +
+            "        query: MutationTestQuery                         \n" +
+            "        mutation: %s                                     \n" +
+            "    }                                                    \n" +
+            "                                                         \n" +
+            "    type MutationTestQuery {                             \n" +
+            "        name: String                                     \n" +
+            "    }                                                    \n" +
+            "                                                         \n" +
+            "    type %<s {                                           \n" +
+            "        updateRoom(id: Int, name: String): MutationTestRoom  \n" +
+            "        bookRoom(id: Int): MutationTestRoom              \n" +
+            "        renameRoom(id: Int, name: String): MutationTestRoom  \n" +
+            "    }                                                    \n" +
+            "                                                         \n" +
+            "    type MutationTestRoom {                              \n" +
+            "        id: Int                                          \n" +
+            "        name: String                                     \n" +
+            "    }                                                    \n";
+
+    private final List<List<Integer>> writes = Collections.synchronizedList(new ArrayList<>());
+
+    private ReflectionGraphQL mutationGraphQL() {
+        return ReflectionGraphQL.newReflectionGraphQL(
+                new SchemaParser().parse(String.format(SCHEMA, "MutationTestMutation")),
+                Arrays.asList(MutationTestQuery.class, MutationTestMutation.class, MutationTestRoom.class)).build();
+    }
+
+    private ExecutionInput input(String query) {
+        return ExecutionInput.newExecutionInput().query(query).context(writes).build();
+    }
+
+    @Test
+    public void coalesceConsecutiveMutations() throws Exception {
+        ExecutionResult result = mutationGraphQL().execute(input("mutation { " +
+                "a: updateRoom(id: 1, name: \"One\") { id, name }, " +
+                "b: updateRoom(id: 2, name: \"Two\") { name }, " +
+                "c: renameRoom(id: 3, name: \"Three\") { name }, " +
+                "d: updateRoom(id: 4, name: \"Four\") { id } }"));
+
+        assertEquals(Collections.emptyList(), result.getErrors());
+        assertEquals("{a={id=1, name=One}, b={name=Two}, c={name=Three}, d={id=4}}", result.getData().toString());
+        assertEquals("[[1, 2], [3], [4]]", writes.toString());
+    }
+
+    @Test
+    public void coalesceMutationsAcrossRequests() throws Exception {
+        ReflectionGraphQL graphQL = mutationGraphQL();
+        CompletableFuture<ExecutionResult> first = graphQL.executeAsync(input("mutation { bookRoom(id: 1) { name } }"));
+        CompletableFuture<ExecutionResult> second = graphQL.executeAsync(input("mutation { bookRoom(id: 2) { id } }"));
+
+        assertEquals("{bookRoom={name=Booked}}", first.get().getData().toString());
+        assertEquals("{bookRoom={id=2}}", second.get().getData().toString());
+        assertEquals("[[1, 2]]", writes.toString());
+    }
+
+    @Test
+    public void classifyAsynchronousBatchFailures() throws Exception {
+        ReflectionGraphQL graphQL = mutationGraphQL();
+        CompletableFuture<ExecutionResult> first = graphQL.executeAsync(input("mutation { bookRoom(id: 0) { name } }"));
+        CompletableFuture<ExecutionResult> second = graphQL.executeAsync(input("mutation { bookRoom(id: 2) { id } }"));
+
+        for (CompletableFuture<ExecutionResult> result : Arrays.asList(first, second)) {
+            ResolverException error = (ResolverException)
+                    ((ExceptionWhileDataFetching) result.get().getErrors().get(0)).getException();
+            assertEquals("NOT_FOUND", error.getClassification());
+            assertEquals("No room 0", error.getMessage());
+        }
+        // one failed batch call, like a batch method that throws
+        assertEquals(Long.valueOf(1),
+                graphQL.getWiringFactory().getResolverErrorCounts().get("MutationTestMutation.bookRoom"));
+    }
+
+    @Test
+    public void rejectInvalidBatchMethods() throws Exception {
+        ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(
+                new SchemaParser().parse(String.format(SCHEMA, "BadMutationTestMutation")),
+                Arrays.asList(MutationTestQuery.class, BadMutationTestMutation.class, MutationTestRoom.class));
+
+        assertEquals("[Batch method 'batchUpdateRoom' in class 'BadMutationTestMutation' is not static, " +
+                        "Unable to find resolver for field 'updateRoom' of type 'BadMutationTestMutation', " +
+                        "Method 'batchBookRoom' in class 'BadMutationTestMutation' doesn't have a List of " +
+                        "DataFetchingEnvironment as first parameter, " +
+                        "Unable to find resolver for field 'bookRoom' of type 'BadMutationTestMutation']",
+                wiringFactory.getErrors().toString());
+    }
+}
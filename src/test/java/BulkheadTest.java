@@ -0,0 +1,164 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.schema.idl.SchemaParser;
+import org.junit.Test;
+import testresolvers.BulkheadTestQuery;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BulkheadTest {
+    private ReflectionGraphQL bulkheadGraphQL() {
+        return bulkheadGraphQLBuilder().build();
+    }
+
+    private ReflectionGraphQL.Builder bulkheadGraphQLBuilder() {
+        return ReflectionGraphQL.newReflectionGraphQL(new SchemaParser().parse("" +
+                        "    schema {                                             \n" +
+                        "        query: BulkheadTestQuery                         \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type BulkheadTestQuery {                             \n" +
+                        "        inventory: String                                \n" +
+                        "        healthy: String                                  \n" +
+                        "    }                                                    \n"),
+                Collections.singletonList(BulkheadTestQuery.class))
+                .queryExecutionStrategy(wiringFactory -> new AsyncExecutionStrategy(new ResolverExceptionHandler()));
+    }
+
+    @Test
+    public void rejectCallsOverTheLimit() throws Exception {
+        ReflectionGraphQL graphQL = bulkheadGraphQL();
+
+        CompletableFuture<String> inventory = new CompletableFuture<>();
+        CompletableFuture<ExecutionResult> result = graphQL.executeAsync(ExecutionInput.newExecutionInput()
+                .query("{ a: inventory, b: inventory, healthy }")
+                .context(inventory)
+                .build());
+        Bulkhead bulkhead = graphQL.getWiringFactory().getBulkheads().get(0);
+        assertEquals("Bulkhead{name=BulkheadTestQuery.inventory, state=CLOSED, limit=1, inFlight=1, " +
+                "accepted=1, rejected=1, failed=0}", bulkhead.toString());
+
+        inventory.complete("stocked");
+        assertEquals("{a=stocked, b=null, healthy=healthy}",
+                result.get(10, TimeUnit.SECONDS).getData().toString());
+        assertEquals("[ResolverError{path=[b], classification=UNAVAILABLE, " +
+                        "message=Bulkhead 'BulkheadTestQuery.inventory' is at its limit of 1 concurrent calls}]",
+                result.get().getErrors().toString());
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    public void countOnlyDependencyFailures() throws Exception {
+        ReflectionGraphQL graphQL = bulkheadGraphQL();
+        Bulkhead bulkhead = graphQL.getWiringFactory().getBulkheads().get(0);
+
+        CompletableFuture<String> missing = new CompletableFuture<>();
+        missing.completeExceptionally(new NoSuchElementException("No inventory"));
+        assertEquals("[ResolverError{path=[inventory], classification=NOT_FOUND, message=No inventory}]",
+                graphQL.execute(ExecutionInput.newExecutionInput().query("{ inventory }").context(missing).build())
+                        .getErrors().toString());
+        assertEquals(0, bulkhead.getFailed());
+
+        CompletableFuture<String> broken = new CompletableFuture<>();
+        broken.completeExceptionally(new IllegalStateException("Inventory is down"));
+        graphQL.execute(ExecutionInput.newExecutionInput().query("{ inventory }").context(broken).build());
+        assertEquals(1, bulkhead.getFailed());
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    public void countDependencyFailuresOfCustomClassifications() throws Exception {
+        ReflectionGraphQL graphQL = bulkheadGraphQL();
+        graphQL.getWiringFactory().setErrorClassifier(new ResolverErrorClassifier() {
+            @Override
+            public String classify(Throwable cause) {
+                return cause instanceof IllegalStateException ? "DEPENDENCY_DOWN" : "CLIENT_ERROR";
+            }
+
+            @Override
+            public boolean isDependencyFailure(String classification) {
+                return classification.equals("DEPENDENCY_DOWN");
+            }
+        });
+        Bulkhead bulkhead = graphQL.getWiringFactory().getBulkheads().get(0);
+
+        CompletableFuture<String> missing = new CompletableFuture<>();
+        missing.completeExceptionally(new NoSuchElementException("No inventory"));
+        graphQL.execute(ExecutionInput.newExecutionInput().query("{ inventory }").context(missing).build());
+        assertEquals(0, bulkhead.getFailed());
+
+        CompletableFuture<String> broken = new CompletableFuture<>();
+        broken.completeExceptionally(new IllegalStateException("Inventory is down"));
+        graphQL.execute(ExecutionInput.newExecutionInput().query("{ inventory }").context(broken).build());
+        assertEquals(1, bulkhead.getFailed());
+    }
+
+    @Test
+    public void leaveBulkheadsAloneDuringWarmUp() throws Exception {
+        CompletableFuture<String> broken = new CompletableFuture<>();
+        broken.completeExceptionally(new IllegalStateException("Inventory is down"));
+        ReflectionGraphQL graphQL = bulkheadGraphQLBuilder()
+                .warmUp(Collections.singletonList(ExecutionInput.newExecutionInput()
+                        .query("{ inventory }")
+                        .context(broken)
+                        .build()), 20)
+                .build();
+        graphQL.getReadiness().get(10, TimeUnit.SECONDS);
+
+        assertEquals("Bulkhead{name=BulkheadTestQuery.inventory, state=CLOSED, limit=1, inFlight=0, " +
+                "accepted=0, rejected=0, failed=0}", graphQL.getWiringFactory().getBulkheads().get(0).toString());
+        assertEquals(Long.valueOf(0),
+                graphQL.getWiringFactory().getResolverErrorCounts().get("BulkheadTestQuery.inventory"));
+    }
+
+    @Test
+    public void adaptLimitToFailures() {
+        Bulkhead bulkhead = Bulkhead.newBulkhead("inventory").limits(1, 4, 8).build();
+
+        bulkhead.acquire();
+        bulkhead.release(false);
+        assertEquals(2, bulkhead.getLimit());
+        for (int i = 0; i < 4; i++) {
+            bulkhead.acquire();
+            bulkhead.release(true);
+        }
+        assertEquals(3, bulkhead.getLimit());
+    }
+
+    @Test
+    public void openCircuitOnConsecutiveFailures() throws Exception {
+        Bulkhead bulkhead = Bulkhead.newBulkhead("inventory").circuitBreaker(2, Duration.ofMillis(50)).build();
+
+        for (int i = 0; i < 2; i++) {
+            bulkhead.acquire();
+            bulkhead.release(false);
+        }
+        assertEquals(Bulkhead.State.OPEN, bulkhead.getState());
+        assertRejected(bulkhead);
+
+        Thread.sleep(60);
+        bulkhead.acquire();
+        assertEquals(Bulkhead.State.HALF_OPEN, bulkhead.getState());
+        assertRejected(bulkhead);
+        bulkhead.release(true);
+        assertEquals(Bulkhead.State.CLOSED, bulkhead.getState());
+        assertEquals(2, bulkhead.getRejected());
+    }
+
+    private void assertRejected(Bulkhead bulkhead) {
+        try {
+            bulkhead.acquire();
+            fail("Expected the call to be rejected");
+        } catch (RejectedExecutionException e) {
+            assertEquals("Circuit of bulkhead 'inventory' is open", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import hotel.HotelData;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CborResultWriterTest {
+    private TypeDefinitionRegistry parseHotelSchema() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            return new SchemaParser().parse(reader);
+        }
+    }
+
+    @Test
+    public void roundTripQueryResult() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry = parseHotelSchema();
+        ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(typeDefinitionRegistry, "hotel");
+        RuntimeWiring runtimeWiring = newRuntimeWiring().wiringFactory(wiringFactory).build();
+        GraphQLSchema graphQLSchema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+        GraphQL graphQL = GraphQL.newGraphQL(graphQLSchema).build();
+
+        ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput()
+                .query("{ hotels(ids: [1, 2, 3]) { id, name, rooms { id, label: name, facilities { id, name } } } }")
+                .context(HotelData.generate(3, 5, 4, 42))
+                .build());
+
+        ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+        new CborResultWriter(wiringFactory).write(result, cbor);
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new JsonResultWriter(wiringFactory).write(result, json);
+
+        Map<String, Object> decoded = new CborResultReader(parseHotelSchema()).read(cbor.toByteArray());
+        assertEquals(result.toSpecification(), decoded);
+        assertTrue(cbor.size() + " bytes of CBOR vs " + json.size() + " bytes of JSON",
+                cbor.size() < json.size() * 3 / 4);
+    }
+
+    @Test
+    public void roundTripLazilyWiredResult() throws Exception {
+        // an unreachable type is skipped by LAZY wiring, but its names still take up indexes
+        TypeDefinitionRegistry typeDefinitionRegistry = parseHotelSchema()
+                .merge(new SchemaParser().parse("type Aardvark {\n    burrow: String\n}\n"));
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(typeDefinitionRegistry, "hotel")
+                .wiringMode(ReflectionWiringFactory.Mode.LAZY)
+                .build();
+
+        ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput()
+                .query("{ hotel(id: 1) { id, name, rooms { id } } }")
+                .context(HotelData.generate(1, 2, 1, 42))
+                .build());
+
+        ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+        new CborResultWriter(graphQL.getWiringFactory()).write(result, cbor);
+        Map<String, Object> decoded = new CborResultReader(typeDefinitionRegistry).read(cbor.toByteArray());
+        assertEquals(result.toSpecification(), decoded);
+    }
+
+    @Test
+    public void roundTripValues() throws Exception {
+        ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(parseHotelSchema(), "hotel");
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("name", "\u00e9\u20ac\ud83d\ude00 \"quoted\"");
+        data.put("rooms", Arrays.asList(0, 23, 24, -1, -25, 65536, Integer.MIN_VALUE, 1L << 40, Long.MIN_VALUE));
+        data.put("doubles", Arrays.asList(1.5, 0.1, -1e300, Double.NaN));
+        data.put("flags", Arrays.asList(true, false, null, "id", "facilities"));
+        ExecutionResult result = new ExecutionResultImpl(data, Collections.<GraphQLError>emptyList());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CborResultWriter(wiringFactory).write(result, out);
+        Map<String, Object> decoded = new CborResultReader(wiringFactory.getSchemaNames()).read(out.toByteArray());
+
+        assertEquals("{data={name=\u00e9\u20ac\ud83d\ude00 \"quoted\", " +
+                        "rooms=[0, 23, 24, -1, -25, 65536, -2147483648, 1099511627776, -9223372036854775808], " +
+                        "doubles=[1.5, 0.1, -1.0E300, null], " +
+                        "flags=[true, false, null, id, facilities]}}",
+                decoded.toString());
+    }
+
+    @Test
+    public void rejectResultOfAnotherSchema() throws Exception {
+        ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(parseHotelSchema(), "hotel");
+        Map<String, Object> data = Collections.singletonMap("hotel", Collections.singletonMap("name", "Ritz"));
+        ExecutionResult result = new ExecutionResultImpl(data, Collections.<GraphQLError>emptyList());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CborResultWriter(wiringFactory).write(result, out);
+
+        // an added type shifts the indexes of every later name
+        TypeDefinitionRegistry changedRegistry = parseHotelSchema()
+                .merge(new SchemaParser().parse("type Aardvark {\n    burrow: String\n}\n"));
+        try {
+            new CborResultReader(changedRegistry).read(out.toByteArray());
+            fail("Expected the result to be rejected");
+        } catch (IOException e) {
+            assertEquals("The result was written for a different schema", e.getMessage());
+        }
+    }
+
+    @Test
+    public void rejectLengthsBeyondTheInput() throws Exception {
+        CborResultReader reader = new CborResultReader(Collections.<String>emptyList());
+        // the schema hash tag followed by an array, a byte string and a map claiming up to 2^31 - 1 entries
+        for (int header : new int[]{0x9a, 0x5a, 0xba}) {
+            byte[] cbor = {(byte) 0xd9, (byte) 0xa4, 0x3b, (byte) header, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff};
+            try {
+                reader.read(cbor);
+                fail("Expected the result to be rejected");
+            } catch (IOException e) {
+                assertEquals("CBOR item declares 2147483647 entries but only 0 bytes are left", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.schema.idl.SchemaParser;
+import org.junit.Test;
+import testresolvers.DeadlineTestMutation;
+import testresolvers.DeadlineTestQuery;
+import testresolvers.IncrementalTestHotel;
+import testresolvers.IncrementalTestQuery;
+import testresolvers.MutationTestRoom;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DeadlineInstrumentationTest {
+    private ReflectionGraphQL.Builder deadlineGraphQL() {
+        return ReflectionGraphQL.newReflectionGraphQL(new SchemaParser().parse("" +
+                        "    schema {                                             \n" +
+                        "        query: DeadlineTestQuery                         \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type DeadlineTestQuery {                             \n" +
+                        "        slow: String                                     \n" +
+                        "        fast: String                                     \n" +
+                        "        hasDeadline: Boolean                             \n" +
+                        "    }                                                    \n"),
+                Collections.singletonList(DeadlineTestQuery.class))
+                .queryExecutionStrategy(wiringFactory -> new AsyncExecutionStrategy(new ResolverExceptionHandler()));
+    }
+
+    private ExecutionResult execute(ReflectionGraphQL graphQL, CompletableFuture<String> slow) throws Exception {
+        return graphQL.executeAsync(ExecutionInput.newExecutionInput()
+                .query("{ slow, fast, hasDeadline }")
+                .context(slow)
+                .build()).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void failFieldsPastTheirDeadline() throws Exception {
+        ReflectionGraphQL graphQL = deadlineGraphQL().build();
+
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        ExecutionResult result = execute(graphQL, slow);
+
+        assertFalse(slow.isDone());
+        assertEquals("{slow=null, fast=fast, hasDeadline=false}", result.getData().toString());
+        assertEquals("[ResolverError{path=[slow], classification=TIMEOUT, " +
+                        "message=Field 'DeadlineTestQuery.slow' exceeded its deadline}]",
+                result.getErrors().toString());
+    }
+
+    @Test
+    public void boundFieldsByExecutionDeadline() throws Exception {
+        ReflectionGraphQL graphQL = deadlineGraphQL().timeouts(Duration.ofMillis(100), null).build();
+        graphQL.getWiringFactory().setTimeout("DeadlineTestQuery", "slow", null);
+
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        ExecutionResult result = execute(graphQL, slow);
+
+        assertFalse(slow.isDone());
+        assertEquals("{slow=null, fast=fast, hasDeadline=true}", result.getData().toString());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(Long.valueOf(1), graphQL.getWiringFactory().getResolverErrorCounts().get("DeadlineTestQuery.slow"));
+    }
+
+    @Test
+    public void completeFieldsWithinTheirDeadline() throws Exception {
+        ReflectionGraphQL graphQL = deadlineGraphQL().timeouts(null, Duration.ofSeconds(10)).build();
+
+        ExecutionResult result = execute(graphQL, CompletableFuture.completedFuture("slow"));
+
+        assertEquals("{slow=slow, fast=fast, hasDeadline=true}", result.getData().toString());
+        assertEquals(Collections.emptyList(), result.getErrors());
+    }
+
+    @Test
+    public void boundBatchedMutations() throws Exception {
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(new SchemaParser().parse("" +
+                        "    schema {                                             \n" +
+                        "        query: DeadlineTestQuery                         \n" +
+                        "        mutation: DeadlineTestMutation                   \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type DeadlineTestQuery {                             \n" +
+                        "        fast: String                                     \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type DeadlineTestMutation {                          \n" +
+                        "        bookRoom(id: Int): MutationTestRoom              \n" +
+                        "        renameRoom(id: Int): MutationTestRoom            \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type MutationTestRoom {                              \n" +
+                        "        id: Int                                          \n" +
+                        "        name: String                                     \n" +
+                        "    }                                                    \n"),
+                Arrays.asList(DeadlineTestQuery.class, DeadlineTestMutation.class, MutationTestRoom.class))
+                .queryExecutionStrategy(wiringFactory -> new AsyncExecutionStrategy(new ResolverExceptionHandler()))
+                .mutationExecutionStrategy(wiringFactory -> new BatchingMutationStrategy(
+                        wiringFactory, new ResolverExceptionHandler()))
+                .timeouts(Duration.ofMillis(50), null)
+                .build();
+        List<List<Integer>> writes = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutionResult renamed = graphQL.execute(ExecutionInput.newExecutionInput()
+                .query("mutation { renameRoom(id: 1) { name } }")
+                .context(writes)
+                .build());
+        assertEquals("{renameRoom={name=Deadline}}", renamed.getData().toString());
+
+        // the window of the batch outlasts the execution's deadline
+        ExecutionResult booked = graphQL.execute(ExecutionInput.newExecutionInput()
+                .query("mutation { bookRoom(id: 2) { id } }")
+                .context(writes)
+                .build());
+        assertEquals("{bookRoom=null}", booked.getData().toString());
+        assertEquals("[ResolverError{path=[bookRoom], classification=TIMEOUT, " +
+                        "message=Field 'DeadlineTestMutation.bookRoom' exceeded its deadline}]",
+                booked.getErrors().toString());
+
+        Thread.sleep(400);
+        assertEquals("[[1]]", writes.toString());
+    }
+
+    @Test
+    public void enforceTimeoutsSetAfterBuilding() throws Exception {
+        // no fetch method declares a timeout and none is configured when the instance is built
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(new SchemaParser().parse("" +
+                        "    schema {                                             \n" +
+                        "        query: IncrementalTestQuery                      \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type IncrementalTestQuery {                          \n" +
+                        "        hotel: IncrementalTestHotel                      \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type IncrementalTestHotel {                          \n" +
+                        "        name: String                                     \n" +
+                        "        facilities: [String]                             \n" +
+                        "    }                                                    \n"),
+                Arrays.asList(IncrementalTestQuery.class, IncrementalTestHotel.class))
+                .queryExecutionStrategy(wiringFactory -> new AsyncExecutionStrategy(new ResolverExceptionHandler()))
+                .build();
+        graphQL.getWiringFactory().setTimeout("IncrementalTestHotel", "facilities", Duration.ofMillis(50));
+
+        ExecutionResult result = graphQL.executeAsync(ExecutionInput.newExecutionInput()
+                .query("{ hotel { name, facilities } }")
+                .context(new CompletableFuture<List<String>>())
+                .build()).get(10, TimeUnit.SECONDS);
+
+        assertEquals("{hotel={name=Grand, facilities=null}}", result.getData().toString());
+        assertEquals("[ResolverError{path=[hotel, facilities], classification=TIMEOUT, " +
+                        "message=Field 'IncrementalTestHotel.facilities' exceeded its deadline}]",
+                result.getErrors().toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectTimeoutsOfUnknownFields() throws Exception {
+        deadlineGraphQL().build().getWiringFactory().setTimeout("DeadlineTestQuery", "missing", Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,218 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import testresolvers.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventStreamExecutionStrategyTest {
+    private static final String SCHEMA = "" +
+            "    schema {                                             \n" +
+            "        query: EventTestQuery                            \n" +
+            "        subscription: %s                                 \n" +
+            "    }                                                    \n" +
+            "                                                         \n" +
+            "    type EventTestQuery {                                \n" +
+            "        name: String                                     \n" +
+            "    }                                                    \n" +
+            "                                                         \n" +
+            "    type %<s {                                           \n" +
+            "        events: EventTestValue                           \n" +
+            "    }                                                    \n" +
+            "                                                         \n" +
+            "    type EventTestValue {                                \n" +
+            "        value: Int                                       \n" +
+            "        doubled: Int                                     \n" +
+            "    }                                                    \n";
+
+    private static class CountingPublisher implements Publisher<EventTestValue> {
+        private final int count;
+        private long outstanding;
+        private long maximumOutstanding;
+
+        private CountingPublisher(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super EventTestValue> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+                private int next = 1;
+
+                @Override
+                public void request(long n) {
+                    synchronized (CountingPublisher.this) {
+                        outstanding = n == Long.MAX_VALUE ? n : outstanding + n;
+                        maximumOutstanding = Math.max(maximumOutstanding, outstanding);
+                        while (outstanding > 0 && next <= count) {
+                            outstanding--;
+                            subscriber.onNext(new EventTestValue(next++));
+                        }
+                        if (next == count + 1) {
+                            next++;
+                            subscriber.onComplete();
+                        }
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        }
+    }
+
+    private static CompletableFuture<List<String>> collect(Publisher<ExecutionResult> results, long batchSize) {
+        CompletableFuture<List<String>> collected = new CompletableFuture<>();
+        results.subscribe(new Subscriber<ExecutionResult>() {
+            private final List<String> data = new ArrayList<>();
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(batchSize);
+            }
+
+            @Override
+            public void onNext(ExecutionResult result) {
+                data.add(result.getData().toString());
+                if (batchSize != Long.MAX_VALUE) {
+                    subscription.request(batchSize);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                collected.completeExceptionally(t);
+            }
+
+            @Override
+            public void onComplete() {
+                collected.complete(data);
+            }
+        });
+        return collected;
+    }
+
+    private static ReflectionGraphQL.Builder eventGraphQL() {
+        return ReflectionGraphQL.newReflectionGraphQL(
+                new SchemaParser().parse(String.format(SCHEMA, "EventTestSubscription")),
+                Arrays.asList(EventTestQuery.class, EventTestSubscription.class, EventTestValue.class));
+    }
+
+    private Publisher<ExecutionResult> subscribe(Publisher<EventTestValue> events, String query) {
+        return subscribe(eventGraphQL().build(), events, query);
+    }
+
+    private Publisher<ExecutionResult> subscribe(ReflectionGraphQL graphQL, Publisher<EventTestValue> events,
+                                                 String query) {
+        ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput().query(query).context(events).build());
+        assertEquals(Collections.emptyList(), result.getErrors());
+        return result.getData();
+    }
+
+    @Test
+    public void deliverEventsOnDemand() throws Exception {
+        CountingPublisher events = new CountingPublisher(3);
+        List<String> data = collect(subscribe(events, "subscription { events { value, doubled } }"), 1)
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals("[{events={value=1, doubled=2}}, {events={value=2, doubled=4}}, {events={value=3, doubled=6}}]",
+                data.toString());
+        assertEquals(1, events.maximumOutstanding);
+    }
+
+    @Test
+    public void deliverEventsInOrder() throws Exception {
+        List<String> data = collect(subscribe(new CountingPublisher(4), "subscription { events { doubled } }"),
+                Long.MAX_VALUE).get(10, TimeUnit.SECONDS);
+
+        assertEquals("[{events={doubled=2}}, {events={doubled=4}}, {events={doubled=6}}, {events={doubled=8}}]",
+                data.toString());
+    }
+
+    @Test
+    public void boundEveryEventByItsOwnDeadline() throws Exception {
+        ReflectionGraphQL graphQL = eventGraphQL().timeouts(Duration.ofMillis(100), null).build();
+        // events arrive further apart than the execution timeout
+        Publisher<EventTestValue> events = subscriber -> {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            new Thread(() -> {
+                try {
+                    for (int value = 1; value <= 2; value++) {
+                        Thread.sleep(300);
+                        subscriber.onNext(new EventTestValue(value));
+                    }
+                    subscriber.onComplete();
+                } catch (InterruptedException e) {
+                    subscriber.onError(e);
+                }
+            }).start();
+        };
+
+        List<ExecutionResult> results = new ArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        subscribe(graphQL, events, "subscription { events { value, doubled } }").subscribe(
+                new Subscriber<ExecutionResult>() {
+                    @Override
+                    public void onSubscribe(Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(ExecutionResult result) {
+                        results.add(result);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        completed.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        completed.complete(null);
+                    }
+                });
+        completed.get(10, TimeUnit.SECONDS);
+
+        assertEquals("[{events={value=1, doubled=2}}, {events={value=2, doubled=4}}]",
+                results.stream().map(result -> result.getData().toString()).collect(Collectors.toList()).toString());
+        for (ExecutionResult result : results) {
+            assertEquals(Collections.emptyList(), result.getErrors());
+        }
+    }
+
+    @Test
+    public void rejectFetchMethodsWithoutPublisher() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse(
+                String.format(SCHEMA, "BadEventTestSubscription"));
+        ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(typeDefinitionRegistry,
+                Arrays.asList(EventTestQuery.class, BadEventTestSubscription.class, EventTestValue.class));
+
+        assertEquals("[Method 'fetchEvents' in class 'BadEventTestSubscription' returns 'EventTestValue' " +
+                        "instead of expected 'Publisher<EventTestValue>', " +
+                        "Unable to find resolver for field 'events' of type 'BadEventTestSubscription']",
+                wiringFactory.getErrors().toString());
+    }
+}
@@ -0,0 +1,200 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.schema.idl.SchemaParser;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import testresolvers.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalExecutionStrategyTest {
+    private static final String SCHEMA = "" +
+            "    schema {                                             \n" +
+            "        query: IncrementalTestQuery                      \n" +
+            "    }                                                    \n" +
+            "                                                         \n" +
+            "    type IncrementalTestQuery {                          \n" +
+            "        hotel: IncrementalTestHotel                      \n" +
+            "    }                                                    \n" +
+            "                                                         \n" +
+            "    type IncrementalTestHotel {                          \n" +
+            "        id: Int                                          \n" +
+            "        name: String                                     \n" +
+            "        rooms: [String]                                  \n" +
+            "        facilities: [String]                             \n" +
+            "    }                                                    \n";
+
+    private final CompletableFuture<List<String>> facilities = new CompletableFuture<>();
+
+    private ReflectionGraphQL graphQL(boolean incremental) {
+        ReflectionGraphQL.Builder builder = ReflectionGraphQL.newReflectionGraphQL(new SchemaParser().parse(SCHEMA),
+                Arrays.asList(IncrementalTestQuery.class, IncrementalTestHotel.class));
+        if (incremental) {
+            builder.queryExecutionStrategy(wiringFactory -> new IncrementalExecutionStrategy());
+        }
+        return builder.build();
+    }
+
+    private CompletableFuture<ExecutionResult> executeAsync(ReflectionGraphQL graphQL, String query) {
+        return graphQL.executeAsync(ExecutionInput.newExecutionInput().query(query).context(facilities).build());
+    }
+
+    private static CompletableFuture<List<String>> collect(Publisher<Map<String, Object>> payloads) {
+        CompletableFuture<List<String>> collected = new CompletableFuture<>();
+        payloads.subscribe(new Subscriber<Map<String, Object>>() {
+            private final List<String> received = new ArrayList<>();
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Map<String, Object> payload) {
+                received.add(payload.toString());
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                collected.completeExceptionally(t);
+            }
+
+            @Override
+            public void onComplete() {
+                collected.complete(received);
+            }
+        });
+        return collected;
+    }
+
+    @Test
+    public void deliverDeferredFieldsLater() throws Exception {
+        ExecutionResult result = executeAsync(graphQL(true), "{ hotel { id, name, facilities @defer } }")
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals("{hotel={id=1, name=Grand}}", result.getData().toString());
+        assertEquals(Collections.emptyList(), result.getErrors());
+        assertEquals(null, IncrementalExecutionStrategy.initialPayload(result).getExtensions());
+
+        CompletableFuture<List<String>> payloads = collect(IncrementalExecutionStrategy.subsequentPayloads(result));
+        assertFalse(payloads.isDone());
+        facilities.complete(Arrays.asList("Pool", "Gym"));
+        assertEquals("[{path=[hotel], data={facilities=[Pool, Gym]}, hasNext=false}]",
+                payloads.get(10, TimeUnit.SECONDS).toString());
+    }
+
+    @Test
+    public void streamListItems() throws Exception {
+        ExecutionResult result = executeAsync(graphQL(true), "{ hotel { rooms @stream(initialCount: 1) } }")
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals("{hotel={rooms=[Single]}}", result.getData().toString());
+        assertEquals("[{path=[hotel, rooms, 1], items=[Double], hasNext=true}, " +
+                        "{path=[hotel, rooms, 2], items=[Suite], hasNext=false}]",
+                collect(IncrementalExecutionStrategy.subsequentPayloads(result)).get(10, TimeUnit.SECONDS).toString());
+    }
+
+    @Test
+    public void reportErrorsWithTheirPayload() throws Exception {
+        facilities.completeExceptionally(new IllegalStateException("closed"));
+        ExecutionResult result = executeAsync(graphQL(true), "{ hotel { name, facilities @defer } }")
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals("{hotel={name=Grand}}", result.getData().toString());
+        assertEquals(Collections.emptyList(), result.getErrors());
+        List<String> payloads = collect(IncrementalExecutionStrategy.subsequentPayloads(result))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(1, payloads.size());
+        assertTrue(payloads.get(0).startsWith("{path=[hotel], data={facilities=null}, errors=[{"));
+    }
+
+    @Test
+    public void rejectSecondSubscriberWithoutTouchingTheFirst() throws Exception {
+        ExecutionResult result = executeAsync(graphQL(true), "{ hotel { name, facilities @defer } }")
+                .get(10, TimeUnit.SECONDS);
+        Publisher<Map<String, Object>> payloads = IncrementalExecutionStrategy.subsequentPayloads(result);
+
+        CompletableFuture<List<String>> first = collect(payloads);
+        CompletableFuture<Throwable> second = new CompletableFuture<>();
+        payloads.subscribe(new Subscriber<Map<String, Object>>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.cancel();
+            }
+
+            @Override
+            public void onNext(Map<String, Object> payload) {
+                second.complete(null);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                second.complete(t);
+            }
+
+            @Override
+            public void onComplete() {
+                second.complete(null);
+            }
+        });
+
+        assertTrue(second.get(10, TimeUnit.SECONDS) instanceof IllegalStateException);
+        facilities.complete(Arrays.asList("Pool"));
+        assertEquals("[{path=[hotel], data={facilities=[Pool]}, hasNext=false}]",
+                first.get(10, TimeUnit.SECONDS).toString());
+    }
+
+    @Test
+    public void signalErrorOnNonPositiveRequest() throws Exception {
+        ExecutionResult result = executeAsync(graphQL(true), "{ hotel { rooms @stream(initialCount: 1) } }")
+                .get(10, TimeUnit.SECONDS);
+
+        CompletableFuture<Throwable> error = new CompletableFuture<>();
+        IncrementalExecutionStrategy.subsequentPayloads(result).subscribe(new Subscriber<Map<String, Object>>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(0);
+            }
+
+            @Override
+            public void onNext(Map<String, Object> payload) {
+                error.complete(null);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                error.complete(t);
+            }
+
+            @Override
+            public void onComplete() {
+                error.complete(null);
+            }
+        });
+
+        assertTrue(error.get(10, TimeUnit.SECONDS) instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void ignoreDirectivesWithoutIncrementalStrategy() throws Exception {
+        facilities.complete(Arrays.asList("Pool"));
+        ExecutionResult result = executeAsync(graphQL(false),
+                "{ hotel { name, facilities @defer, rooms @stream(initialCount: 1) } }").get(10, TimeUnit.SECONDS);
+
+        assertEquals(Collections.emptyList(), result.getErrors());
+        assertEquals("{hotel={name=Grand, facilities=[Pool], rooms=[Single, Double, Suite]}}",
+                result.getData().toString());
+        assertEquals(null, result.getExtensions());
+    }
+}
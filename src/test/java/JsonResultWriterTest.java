@@ -0,0 +1,86 @@
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.junit.Test;
+import testresolvers.EnumTestQuery;
+import testresolvers.TestEnum;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+import static org.junit.Assert.assertEquals;
+
+public class JsonResultWriterTest {
+    private static final String ENUM_SCHEMA = "" +
+            "    schema {                                         \n" +
+            "        query: EnumTestQuery                         \n" +
+            "    }                                                \n" +
+            "                                                     \n" +
+            "    type EnumTestQuery {                             \n" +
+            "        field1(e: TestEnum): String                  \n" +
+            "        field2: TestEnum                             \n" +
+            "    }                                                \n" +
+            "    enum TestEnum {                                  \n" +
+            "        ONE                                          \n" +
+            "        TWO                                          \n" +
+            "        THREE                                        \n" +
+            "    }                                                \n";
+
+    private final TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse(ENUM_SCHEMA);
+    private final ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(typeDefinitionRegistry,
+            Arrays.asList(EnumTestQuery.class, TestEnum.class));
+
+    private String write(JsonResultWriter writer, ExecutionResult result) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(result, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void writeQueryResult() throws Exception {
+        RuntimeWiring runtimeWiring = newRuntimeWiring().wiringFactory(wiringFactory).build();
+        GraphQLSchema graphQLSchema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+        GraphQL graphQL = GraphQL.newGraphQL(graphQLSchema).build();
+
+        ExecutionResult result = graphQL.execute("{ field1(e: THREE), second: field2, __typename }");
+        assertEquals(
+                "{\"data\":{\"field1\":\"THREE\",\"second\":\"ONE\",\"__typename\":\"EnumTestQuery\"}}",
+                write(new JsonResultWriter(wiringFactory), result));
+
+        result = graphQL.execute("{ field3 }");
+        assertEquals(
+                "{\"errors\":[{\"message\":\"Validation error of type FieldUndefined: " +
+                        "Field 'field3' in type 'EnumTestQuery' is undefined\"," +
+                        "\"locations\":[{\"line\":1,\"column\":3}]}]}",
+                write(new JsonResultWriter(wiringFactory), result));
+    }
+
+    @Test
+    public void writeValues() throws Exception {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("text", "quote \" slash \\ line\n tab\t bell\u0007");
+        data.put("unicode", "\u00e9\u20ac\ud83d\ude00");
+        data.put("numbers", Arrays.asList(0, -7, 1234567890123L, Long.MIN_VALUE, 1.5, Double.NaN, (short) 3));
+        data.put("flags", Arrays.asList(true, false, null));
+        data.put("nested", Collections.singletonMap("field2", Collections.emptyList()));
+        ExecutionResult result = new ExecutionResultImpl(data, Collections.<GraphQLError>emptyList());
+
+        String expected = "{\"data\":{" +
+                "\"text\":\"quote \\\" slash \\\\ line\\n tab\\t bell\\u0007\"," +
+                "\"unicode\":\"\u00e9\u20ac\ud83d\ude00\"," +
+                "\"numbers\":[0,-7,1234567890123,-9223372036854775808,1.5,null,3]," +
+                "\"flags\":[true,false,null]," +
+                "\"nested\":{\"field2\":[]}}}";
+        JsonResultWriter writer = new JsonResultWriter(wiringFactory, 16);
+        assertEquals(expected, write(writer, result));
+        assertEquals(expected, write(writer, result));
+    }
+}
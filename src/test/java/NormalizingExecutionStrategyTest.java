@@ -0,0 +1,82 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import hotel.HotelData;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+import static org.junit.Assert.assertEquals;
+
+public class NormalizingExecutionStrategyTest {
+    private final HotelData hotelData = HotelData.generate(2, 2, 1, 42);
+    private ReflectionWiringFactory wiringFactory;
+    private GraphQL regular;
+    private GraphQL normalizing;
+
+    private void wireHotelSchema() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            typeDefinitionRegistry = new SchemaParser().parse(reader);
+        }
+        wiringFactory = new ReflectionWiringFactory(typeDefinitionRegistry, "hotel");
+        RuntimeWiring runtimeWiring = newRuntimeWiring().wiringFactory(wiringFactory).build();
+        GraphQLSchema graphQLSchema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+        regular = GraphQL.newGraphQL(graphQLSchema).build();
+        normalizing = GraphQL.newGraphQL(graphQLSchema)
+                .queryExecutionStrategy(new NormalizingExecutionStrategy(wiringFactory))
+                .build();
+    }
+
+    private ExecutionInput input(String query) {
+        return ExecutionInput.newExecutionInput().query(query).context(hotelData).build();
+    }
+
+    @Test
+    public void normalizeRepeatedEntities() throws Exception {
+        wireHotelSchema();
+        wiringFactory.setIdField("Hotel", "id");
+        wiringFactory.setIdField("Room", "id");
+
+        String query = "{ hotels(ids: [1, 2, 1]) { id, name, rooms { id } } }";
+        ExecutionResult result = normalizing.execute(input(query));
+
+        assertEquals("{hotels=[{__ref=Hotel:1}, {__ref=Hotel:2}, {__ref=Hotel:1}]}", result.getData().toString());
+        assertEquals("{entities={" +
+                        "Room:1001={id=1001}, Room:1002={id=1002}, " +
+                        "Hotel:1={id=1, name=MyHotel1, rooms=[{__ref=Room:1001}, {__ref=Room:1002}]}, " +
+                        "Room:2001={id=2001}, Room:2002={id=2002}, " +
+                        "Hotel:2={id=2, name=MyHotel2, rooms=[{__ref=Room:2001}, {__ref=Room:2002}]}}}",
+                result.getExtensions().toString());
+        assertEquals(regular.execute(input(query)).getData(), Denormalizer.denormalize(result.toSpecification()));
+    }
+
+    @Test
+    public void keepDifferentSelectionsInline() throws Exception {
+        wireHotelSchema();
+        wiringFactory.setIdField("Hotel", "id");
+
+        String query = "{ a: hotel(id: 1) { id }, b: hotel(id: 1) { id, name }, c: hotel(id: 1) { id } }";
+        ExecutionResult result = normalizing.execute(input(query));
+
+        assertEquals("{a={__ref=Hotel:1}, b={id=1, name=MyHotel1}, c={__ref=Hotel:1}}",
+                result.getData().toString());
+        assertEquals(regular.execute(input(query)).getData(), Denormalizer.denormalize(result.toSpecification()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void idFieldMustBeGetter() throws Exception {
+        wireHotelSchema();
+        wiringFactory.setIdField("RootQuery", "hotel");
+    }
+}
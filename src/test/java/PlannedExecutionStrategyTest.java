@@ -0,0 +1,115 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import hotel.HotelData;
+import org.junit.Test;
+import testresolvers.*;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class PlannedExecutionStrategyTest {
+    private final HotelData hotelData = HotelData.generate(3, 2, 2, 42);
+    private final List<PlannedExecutionStrategy> strategies = new ArrayList<>();
+
+    private TypeDefinitionRegistry parseHotelSchema() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            return new SchemaParser().parse(reader);
+        }
+    }
+
+    private ReflectionGraphQL planned(ReflectionGraphQL.Builder builder) {
+        return builder.queryExecutionStrategy(wiringFactory -> {
+            PlannedExecutionStrategy strategy = new PlannedExecutionStrategy(wiringFactory);
+            strategies.add(strategy);
+            return strategy;
+        }).build();
+    }
+
+    private void assertSameResult(ReflectionGraphQL regular, ReflectionGraphQL planned, String hash,
+                                  Map<String, Object> variables) {
+        ExecutionResult expected = regular.executePersisted(hash,
+                ExecutionInput.newExecutionInput().variables(variables).context(hotelData));
+        Object expectedData = expected.getData();
+        for (int i = 0; i < 3; i++) {
+            ExecutionResult actual = planned.executePersisted(hash,
+                    ExecutionInput.newExecutionInput().variables(variables).context(hotelData));
+            assertEquals(expected.getErrors(), actual.getErrors());
+            Object actualData = actual.getData();
+            assertEquals(expectedData, actualData);
+        }
+    }
+
+    @Test
+    public void executePlannedQueries() throws Exception {
+        ReflectionGraphQL regular = ReflectionGraphQL.newReflectionGraphQL(parseHotelSchema(), "hotel").build();
+        ReflectionGraphQL planned = planned(ReflectionGraphQL.newReflectionGraphQL(parseHotelSchema(), "hotel"));
+
+        String[] queries = {
+                "{ hotel(id: 1) { id, name, rooms { id, facilities { name } } } }",
+                "{ hotels(ids: [1, 3]) { name, ...Rooms }, hotel(id: 2) { ...Rooms } }\n" +
+                        "fragment Rooms on Hotel { rooms { id, name }, rooms { facilities { id } } }",
+                "query Hotels($ids: [Int], $rooms: Boolean!) { " +
+                        "hotels(ids: $ids) { id, rooms @include(if: $rooms) { id } } }",
+        };
+        List<Map<String, Object>> variables = new ArrayList<>();
+        variables.add(Collections.emptyMap());
+        variables.add(Collections.emptyMap());
+        Map<String, Object> withRooms = new HashMap<>();
+        withRooms.put("ids", Arrays.asList(2, 3));
+        withRooms.put("rooms", true);
+        variables.add(withRooms);
+
+        for (int i = 0; i < queries.length; i++) {
+            String hash = regular.registerPersistedQuery(queries[i]);
+            planned.registerPersistedQuery(queries[i]);
+            assertSameResult(regular, planned, hash, variables.get(i));
+        }
+        Map<String, Object> withoutRooms = new HashMap<>(withRooms);
+        withoutRooms.put("rooms", false);
+        assertSameResult(regular, planned, ReflectionGraphQL.sha256(queries[2]), withoutRooms);
+
+        assertEquals(3, strategies.get(0).getPlanCount());
+    }
+
+    @Test
+    public void executePlannedAbstractTypes() throws Exception {
+        String schema = "" +
+                "    schema {                                             \n" +
+                "        query: UnionTestQuery                            \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type UnionTestQuery {                                \n" +
+                "        unionFieldA: TestUnion                           \n" +
+                "        unionFieldB: TestUnion                           \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    union TestUnion = TypeWithString | TypeWithInt       \n" +
+                "                                                         \n" +
+                "    type TypeWithString {                                \n" +
+                "        stringField: String                              \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type TypeWithInt {                                   \n" +
+                "        intField: Int                                    \n" +
+                "    }                                                    \n";
+        List<Class<?>> classes = Arrays.asList(
+                UnionTestQuery.class, TestUnion.class, TypeWithString.class, TypeWithInt.class);
+        ReflectionGraphQL planned = planned(
+                ReflectionGraphQL.newReflectionGraphQL(new SchemaParser().parse(schema), classes));
+
+        String query = "{ unionFieldA { __typename, ... on TypeWithString { stringField } }, " +
+                "unionFieldB { __typename, ... on TypeWithInt { intField } } }";
+        for (int i = 0; i < 3; i++) {
+            assertEquals("{unionFieldA={__typename=TypeWithString, stringField=string}, " +
+                            "unionFieldB={__typename=TypeWithInt, intField=42}}",
+                    planned.execute(query).getData().toString());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import hotel.HotelData;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class QueryCostInstrumentationTest {
+    private final HotelData hotelData = HotelData.generate(3, 1, 1, 42);
+
+    private ReflectionGraphQL hotelGraphQL(long maximumQueryCost) throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            typeDefinitionRegistry = new SchemaParser().parse(reader);
+        }
+        return ReflectionGraphQL.newReflectionGraphQL(typeDefinitionRegistry, "hotel")
+                .maximumQueryCost(maximumQueryCost)
+                .build();
+    }
+
+    private ExecutionResult executeHotels(ReflectionGraphQL graphQL, Integer... ids) {
+        return graphQL.execute(ExecutionInput.newExecutionInput()
+                .query("query Hotels($ids: [Int]) { hotels(ids: $ids) { name, rooms { facilities { name } } } }")
+                .variables(Collections.singletonMap("ids", Arrays.asList(ids)))
+                .context(hotelData)
+                .build());
+    }
+
+    @Test
+    public void scoreWithListMultipliers() throws Exception {
+        ReflectionGraphQL graphQL = hotelGraphQL(1000);
+
+        // hotel and rooms cost one each, rooms and facilities are multiplied by the default list size
+        assertEquals(12L, graphQL.execute(ExecutionInput.newExecutionInput()
+                .query("{ hotel(id: 1) { name, rooms { facilities { name } } } }")
+                .context(hotelData)
+                .build()).getExtensions().get(QueryCostInstrumentation.COST));
+        // hotels is multiplied by the number of ids requested
+        assertEquals(23L, executeHotels(graphQL, 1, 2).getExtensions().get(QueryCostInstrumentation.COST));
+        assertEquals(34L, executeHotels(graphQL, 1, 2, 3).getExtensions().get(QueryCostInstrumentation.COST));
+        assertEquals(0L, graphQL.execute("{ __typename }").getExtensions().get(QueryCostInstrumentation.COST));
+    }
+
+    @Test
+    public void scoreOmittedMultipliersByDefaultListSize() throws Exception {
+        ReflectionGraphQL graphQL = hotelGraphQL(1000);
+
+        // without ids all hotels are returned, so hotels is multiplied by the default list size
+        assertEquals(111L, graphQL.execute(ExecutionInput.newExecutionInput()
+                .query("{ hotels { name, rooms { facilities { name } } } }")
+                .context(hotelData)
+                .build()).getExtensions().get(QueryCostInstrumentation.COST));
+    }
+
+    @Test
+    public void rejectQueriesOverBudget() throws Exception {
+        ReflectionGraphQL graphQL = hotelGraphQL(30);
+
+        ExecutionResult accepted = executeHotels(graphQL, 1, 2);
+        assertEquals(0, accepted.getErrors().size());
+        assertEquals(23L, accepted.getExtensions().get(QueryCostInstrumentation.COST));
+
+        // the cached document is scored again with the new variables
+        ExecutionResult rejected = executeHotels(graphQL, 1, 2, 3);
+        assertNull(rejected.getData());
+        assertEquals(1, rejected.getErrors().size());
+        assertEquals("Query cost 34 exceeds the maximum of 30", rejected.getErrors().get(0).getMessage());
+        assertEquals(1, graphQL.getDocumentCache().getHits());
+    }
+}
@@ -0,0 +1,358 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.NoOpInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import hotel.HotelData;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.Test;
+import testresolvers.*;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReflectionGraphQLTest {
+    private final HotelData hotelData = HotelData.generate(3, 1, 1, 42);
+
+    private ReflectionGraphQL.Builder hotelGraphQL() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            typeDefinitionRegistry = new SchemaParser().parse(reader);
+        }
+        return ReflectionGraphQL.newReflectionGraphQL(typeDefinitionRegistry, "hotel");
+    }
+
+    private ExecutionInput.Builder input(String query) {
+        return ExecutionInput.newExecutionInput().query(query).context(hotelData);
+    }
+
+    @Test
+    public void cacheDocuments() throws Exception {
+        ReflectionGraphQL graphQL = hotelGraphQL().documentCacheSize(2).build();
+
+        assertEquals("{hotel={name=MyHotel1}}", graphQL.execute(input("{ hotel(id: 1) { name } }").build())
+                .getData().toString());
+        assertEquals("{hotel={name=MyHotel1}}", graphQL.execute(input("{ hotel(id: 1) { name } }").build())
+                .getData().toString());
+        graphQL.execute(input("{ hotel(id: 2) { name } }").build());
+        graphQL.execute(input("{ hotel(id: 1) { name } }").build());
+        graphQL.execute(input("{ hotel(id: 3) { name } }").build());
+        graphQL.execute(input("{ hotel(id: 2) { name } }").build());
+
+        assertEquals("DocumentCache{size=2, maximumSize=2, hits=2, misses=4, evictions=2}",
+                graphQL.getDocumentCache().toString());
+    }
+
+    @Test
+    public void cacheInvalidDocuments() throws Exception {
+        ReflectionGraphQL graphQL = hotelGraphQL().build();
+
+        ExecutionResult first = graphQL.execute("{ hotel(id: 1) { stars } }");
+        ExecutionResult second = graphQL.execute("{ hotel(id: 1) { stars } }");
+        assertEquals(1, first.getErrors().size());
+        assertSame(first.getErrors().get(0), second.getErrors().get(0));
+        assertEquals(1, graphQL.getDocumentCache().getHits());
+    }
+
+    @Test
+    public void executeWithoutContext() throws Exception {
+        ReflectionGraphQL graphQL = hotelGraphQL().build();
+
+        ExecutionResult result = graphQL.execute("{ hotel(id: 2) { name }, hotels { id } }");
+        assertEquals(Collections.emptyList(), result.getErrors());
+        assertEquals("{hotel={name=MyHotel2}, hotels=[{id=1}, {id=2}, {id=3}, {id=4}, {id=5}, {id=6}, {id=7}, " +
+                "{id=8}, {id=9}, {id=10}]}", result.getData().toString());
+    }
+
+    @Test
+    public void executePersistedQueries() throws Exception {
+        ReflectionGraphQL graphQL = hotelGraphQL().build();
+        String hash = graphQL.registerPersistedQuery("query Hotel($id: Int) { hotel(id: $id) { id, name } }");
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, graphQL.registerPersistedQuery("query Hotel($id: Int) { hotel(id: $id) { id, name } }"));
+        assertEquals("{hotel={id=2, name=MyHotel2}}", graphQL.executePersisted(hash,
+                ExecutionInput.newExecutionInput()
+                        .variables(Collections.singletonMap("id", 2))
+                        .context(hotelData))
+                .getData().toString());
+
+        ExecutionResult unknown = graphQL.executePersisted("0000", ExecutionInput.newExecutionInput());
+        assertEquals("[PersistedQueryNotFoundError{hash=0000}]", unknown.getErrors().toString());
+    }
+
+    @Test
+    public void dropLeastRecentlyUsedPersistedQueries() throws Exception {
+        ReflectionGraphQL graphQL = hotelGraphQL().persistedQueryCacheSize(2).build();
+        String first = graphQL.registerPersistedQuery("{ hotel(id: 1) { name } }");
+        String second = graphQL.registerPersistedQuery("{ hotel(id: 2) { name } }");
+        graphQL.executePersisted(first, input(null));
+        graphQL.registerPersistedQuery("{ hotel(id: 3) { name } }");
+
+        assertEquals("{hotel={name=MyHotel1}}", graphQL.executePersisted(first, input(null)).getData().toString());
+        assertEquals("[PersistedQueryNotFoundError{hash=" + second + "}]",
+                graphQL.executePersisted(second, input(null)).getErrors().toString());
+    }
+
+    @Test
+    public void executeBatchWithSharedLoaders() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse("" +
+                "    schema {                                             \n" +
+                "        query: LoaderTestQuery                           \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type LoaderTestQuery {                               \n" +
+                "        item(id: Int): LoaderItem                        \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type LoaderItem {                                    \n" +
+                "        id: Int                                          \n" +
+                "        name: String                                     \n" +
+                "        related: LoaderItem                              \n" +
+                "    }                                                    \n");
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(typeDefinitionRegistry,
+                Arrays.asList(LoaderTestQuery.class, LoaderItem.class)).build();
+
+        List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        DataLoaderRegistry registry = new DataLoaderRegistry().register("items", DataLoader.newDataLoader(
+                (List<Integer> ids) -> {
+                    batches.add(ids);
+                    return CompletableFuture.completedFuture(
+                            ids.stream().map(LoaderItem::new).collect(Collectors.toList()));
+                }));
+
+        List<ExecutionResult> results = graphQL.executeBatch(Arrays.asList(
+                ExecutionInput.newExecutionInput().query("{ item(id: 1) { name, related { name } } }")
+                        .context(registry).build(),
+                ExecutionInput.newExecutionInput().query("{ item(id: 2) { name } }")
+                        .context(registry).build(),
+                ExecutionInput.newExecutionInput().query("{ a: item(id: 1) { id }, b: item(id: 3) { related { id } } }")
+                        .context(registry).build()), registry);
+
+        assertEquals("[{item={name=Item #1, related={name=Item #10}}}, {item={name=Item #2}}, " +
+                        "{a={id=1}, b={related={id=30}}}]",
+                results.stream().map(r -> r.getData().toString()).collect(Collectors.toList()).toString());
+        assertEquals("[[1, 2, 3], [10, 30]]", batches.toString());
+    }
+
+    @Test
+    public void coalesceAsynchronousLoadsLevelByLevel() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse("" +
+                "    schema {                                             \n" +
+                "        query: LoaderTestQuery                           \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type LoaderTestQuery {                               \n" +
+                "        item(id: Int): LoaderItem                        \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type LoaderItem {                                    \n" +
+                "        id: Int                                          \n" +
+                "        related: LoaderItem                              \n" +
+                "    }                                                    \n");
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(typeDefinitionRegistry,
+                Arrays.asList(LoaderTestQuery.class, LoaderItem.class)).build();
+
+        ExecutorService loaderThread = Executors.newSingleThreadExecutor();
+        try {
+            List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+            DataLoaderRegistry registry = new DataLoaderRegistry().register("items", DataLoader.newDataLoader(
+                    (List<Integer> ids) -> {
+                        batchSizes.add(ids.size());
+                        // completed on another thread, so operations queue their next level one after another
+                        return CompletableFuture.supplyAsync(
+                                () -> ids.stream().map(LoaderItem::new).collect(Collectors.toList()), loaderThread);
+                    }));
+
+            List<ExecutionInput> inputs = new ArrayList<>();
+            for (int id = 21; id <= 40; id++) {
+                inputs.add(ExecutionInput.newExecutionInput()
+                        .query("{ item(id: " + id + ") { related { related { id } } } }")
+                        .context(registry)
+                        .build());
+            }
+            List<ExecutionResult> results = graphQL.executeBatch(inputs, registry);
+
+            assertEquals("{item={related={related={id=2700}}}}", results.get(6).getData().toString());
+            assertEquals("[20, 20, 20]", batchSizes.toString());
+        } finally {
+            loaderThread.shutdown();
+        }
+    }
+
+    @Test
+    public void dispatchEveryLevelOnceTheLastBatchCompletes() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse("" +
+                "    schema {                                             \n" +
+                "        query: LoaderTestQuery                           \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type LoaderTestQuery {                               \n" +
+                "        item(id: Int): LoaderItem                        \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type LoaderItem {                                    \n" +
+                "        id: Int                                          \n" +
+                "        related: LoaderItem                              \n" +
+                "    }                                                    \n");
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(typeDefinitionRegistry,
+                Arrays.asList(LoaderTestQuery.class, LoaderItem.class)).build();
+
+        List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<List<LoaderItem>>> pending = Collections.synchronizedList(new ArrayList<>());
+        DataLoaderRegistry registry = new DataLoaderRegistry().register("items", DataLoader.newDataLoader(
+                (List<Integer> ids) -> {
+                    batches.add(ids);
+                    CompletableFuture<List<LoaderItem>> batch = new CompletableFuture<>();
+                    pending.add(batch);
+                    return batch;
+                }));
+        List<ExecutionInput> inputs = new ArrayList<>();
+        for (int id = 1; id <= 2; id++) {
+            inputs.add(ExecutionInput.newExecutionInput()
+                    .query("{ item(id: " + id + ") { related { related { id } } } }")
+                    .context(registry)
+                    .build());
+        }
+
+        CompletableFuture<List<ExecutionResult>> results = graphQL.executeBatchAsync(inputs, registry);
+
+        // nothing waits for the batches, each level goes out as soon as the one before it has completed
+        for (int level = 0; level < 3; level++) {
+            assertFalse(results.isDone());
+            assertEquals(level + 1, batches.size());
+            List<Integer> ids = batches.get(level);
+            pending.get(level).complete(ids.stream().map(LoaderItem::new).collect(Collectors.toList()));
+        }
+        assertEquals("[[1, 2], [10, 20], [100, 200]]", batches.toString());
+        assertEquals("{item={related={related={id=200}}}}",
+                results.get(1, TimeUnit.SECONDS).get(1).getData().toString());
+    }
+
+    @Test
+    public void rewireWithoutRebuild() throws Exception {
+        String schema = "" +
+                "    schema {                                             \n" +
+                "        query: UnionTestQuery                            \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    union TestUnion = TypeWithString | TypeWithInt       \n" +
+                "                                                         \n" +
+                "    type TypeWithString {                                \n" +
+                "        stringField: String                              \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type TypeWithInt {                                   \n" +
+                "        intField: Int                                    \n" +
+                "    }                                                    \n";
+        String query = "{ unionFieldB { ... on TypeWithInt { intField } } }";
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(new SchemaParser().parse(schema +
+                        "    type UnionTestQuery {                                \n" +
+                        "        unionFieldA: TestUnion                           \n" +
+                        "    }                                                    \n"),
+                Arrays.asList(UnionTestQuery.class, TestUnion.class, TypeWithString.class, TypeWithInt.class))
+                .build();
+        ReflectionWiringFactory wiringFactory = graphQL.getWiringFactory();
+        assertEquals(1, graphQL.execute(query).getErrors().size());
+
+        TypeDefinitionRegistry changed = new SchemaParser().parse(schema +
+                "    type UnionTestQuery {                                \n" +
+                "        unionFieldA: TestUnion                           \n" +
+                "        unionFieldB: TestUnion                           \n" +
+                "    }                                                    \n");
+        graphQL.rewire(changed, Collections.emptyList());
+        assertNotSame(wiringFactory, graphQL.getWiringFactory());
+        assertSame(changed, graphQL.getRegistry());
+        assertEquals("{unionFieldB={intField=42}}", graphQL.execute(query).getData().toString());
+        assertEquals(0, graphQL.getDocumentCache().getHits());
+
+        // a re-verified type keeps its id field, an unaffected one its compiled getters
+        wiringFactory = graphQL.getWiringFactory();
+        wiringFactory.setIdField("TypeWithString", "stringField");
+        wiringFactory.setIdField("TypeWithInt", "intField");
+        graphQL.rewire(changed, Collections.singletonList(TypeWithString.class));
+        ReflectionWiringFactory rewired = graphQL.getWiringFactory();
+        assertTrue(rewired.hasIdField("TypeWithString"));
+        assertTrue(rewired.hasIdField("TypeWithInt"));
+        assertSame(wiringFactory.getGetterAccessors("TypeWithInt").get("intField"),
+                rewired.getGetterAccessors("TypeWithInt").get("intField"));
+
+        try {
+            graphQL.rewire(changed, Collections.singletonList(testresolvers.reloaded.TypeWithInt.class));
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Unable to wire schema: [" +
+                            "Method 'getIntField' in class 'TypeWithInt' returns 'String' instead of expected 'Int', " +
+                            "Unable to find resolver for field 'intField' of type 'TypeWithInt']",
+                    e.getMessage());
+        }
+        assertEquals("{unionFieldB={intField=42}}", graphQL.execute(query).getData().toString());
+    }
+
+    @Test
+    public void warmUpBeforeReady() throws Exception {
+        assertTrue(hotelGraphQL().build().isReady());
+
+        AtomicInteger executions = new AtomicInteger();
+        ReflectionGraphQL graphQL = hotelGraphQL()
+                .instrumentation(new NoOpInstrumentation() {
+                    @Override
+                    public InstrumentationContext<ExecutionResult> beginExecution(
+                            InstrumentationExecutionParameters parameters) {
+                        executions.incrementAndGet();
+                        return super.beginExecution(parameters);
+                    }
+                })
+                .warmUp(Arrays.asList(
+                        input("{ hotel(id: 1) { name, rooms { facilities { name } } } }").build(),
+                        input("{ hotels(ids: [1, 2]) { id } }").build()), 100)
+                .build();
+        graphQL.getReadiness().get(10, TimeUnit.SECONDS);
+        assertTrue(graphQL.isReady());
+        // the warm-up leaves the statistics and the instrumentation of the instance alone
+        assertEquals("DocumentCache{size=0, maximumSize=1000, hits=0, misses=0, evictions=0}",
+                graphQL.getDocumentCache().toString());
+        assertEquals(0, executions.get());
+        assertTrue(graphQL.getWiringFactory().getResolverErrorCounts().values().stream().allMatch(count -> count == 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectWarmUpOfMutations() throws Exception {
+        hotelGraphQL().warmUp(Arrays.asList(
+                input("{ hotel(id: 1) { name } }").build(),
+                input("query Hotel { hotel(id: 1) { name } } mutation Book { book(id: 1) }").build()), 1);
+    }
+
+    @Test
+    public void writeClassList() throws Exception {
+        Path classList = Files.createTempFile("classes", ".lst");
+        try {
+            hotelGraphQL().build().writeClassList(classList);
+            assertEquals("[hotel/Facility, hotel/Hotel, hotel/Room, hotel/RootQuery]",
+                    Files.readAllLines(classList, StandardCharsets.UTF_8).toString());
+        } finally {
+            Files.delete(classList);
+        }
+    }
+}
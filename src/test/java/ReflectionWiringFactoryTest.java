@@ -2,20 +2,38 @@ import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
 import graphql.GraphQLError;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.NoOpInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
+import hotel.HotelData;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.Test;
 import testresolvers.NoEnvArgTest;
 import testresolvers.*;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class ReflectionWiringFactoryTest {
     private ReflectionWiringFactory wireSchema(Collection<Class<?>> classes, String schema) {
@@ -134,6 +152,28 @@ public class ReflectionWiringFactoryTest {
                 wiringFactory.getErrors().get(0));
     }
 
+    @Test
+    public void badCostMultiplier() throws Exception {
+        ReflectionWiringFactory wiringFactory = wireSchema(
+                Collections.singletonList(CostTestQuery.class), "" +
+                        "    schema {                                             \n" +
+                        "        query: CostTestQuery                             \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type CostTestQuery {                                 \n" +
+                        "        byName(name: String): String                     \n" +
+                        "        byIds(ids: [Int], limit: Int!): [String]         \n" +
+                        "    }");
+        assertEquals(2, wiringFactory.getErrors().size());
+        assertEquals(
+                "Cost multiplier 'name' of method 'fetchByName' in class 'CostTestQuery' is not a list or Int argument",
+                wiringFactory.getErrors().get(0));
+        assertEquals(
+                "Unable to find resolver for field 'byName' of type 'CostTestQuery'",
+                wiringFactory.getErrors().get(1));
+        assertEquals(2, wiringFactory.getCost("CostTestQuery", "byIds").multipliers().length);
+    }
+
     @Test
     public void badGetterReturnTypeError() throws Exception {
         ReflectionWiringFactory wiringFactory = wireSchema(
@@ -610,6 +650,52 @@ public class ReflectionWiringFactoryTest {
                 result);
     }
 
+    @Test
+    public void resolveCursors() throws Exception {
+        String result = executeQuery(
+                Arrays.asList(CursorTestQuery.class, CursorFacility.class),
+                "" +
+                        "    schema {                                         \n" +
+                        "        query: CursorTestQuery                       \n" +
+                        "    }                                                \n" +
+                        "                                                     \n" +
+                        "    type CursorTestQuery {                           \n" +
+                        "        facilities: [CursorFacility!]                \n" +
+                        "    }                                                \n" +
+                        "                                                     \n" +
+                        "    type CursorFacility {                            \n" +
+                        "        id: Int                                      \n" +
+                        "        name: String                                 \n" +
+                        "    }                                                \n",
+
+                "{ facilities { id, name } }");
+        assertEquals(
+                "{facilities=[{id=1, name=Pool}, {id=2, name=Gym}, {id=3, name=Spa}]}",
+                result);
+    }
+
+    @Test
+    public void rejectCursorsOfFetchedTypes() throws Exception {
+        ReflectionWiringFactory wiringFactory = wireSchema(
+                Arrays.asList(BadCursorTestQuery.class, CursorRoom.class), "" +
+                        "    schema {                                             \n" +
+                        "        query: BadCursorTestQuery                        \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type BadCursorTestQuery {                            \n" +
+                        "        rooms: [CursorRoom]                              \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type CursorRoom {                                    \n" +
+                        "        name: String                                     \n" +
+                        "    }");
+        assertEquals(
+                "[Method 'fetchRooms' in class 'BadCursorTestQuery' returns a Cursor but type 'CursorRoom' " +
+                        "has fields resolved by fetch methods, " +
+                        "Unable to find resolver for field 'rooms' of type 'BadCursorTestQuery']",
+                wiringFactory.getErrors().toString());
+    }
+
     @Test
     public void resolveNotNull() throws Exception {
         String result = executeQuery(
@@ -799,4 +885,316 @@ public class ReflectionWiringFactoryTest {
 
         assertEquals(1, queryCounter.intValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void resolveGetterSubtrees() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            typeDefinitionRegistry = new SchemaParser().parse(reader);
+        }
+        ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(typeDefinitionRegistry, "hotel");
+        assertEquals("[Facility, Hotel, Room]", new TreeSet<>(wiringFactory.getGetterOnlyTypes()).toString());
+
+        RuntimeWiring runtimeWiring = newRuntimeWiring().wiringFactory(wiringFactory).build();
+        GraphQLSchema graphQLSchema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+        GraphQL regular = GraphQL.newGraphQL(graphQLSchema).build();
+        GraphQL getterSubtrees = GraphQL.newGraphQL(graphQLSchema)
+                .queryExecutionStrategy(new GetterSubtreeExecutionStrategy(wiringFactory))
+                .build();
+
+        String query = "" +
+                "{ hotels(ids: [1, 2, 99]) {                              \n" +
+                "      __typename, id, title: name                         \n" +
+                "      rooms { id, ...RoomFields, facilities { name } }    \n" +
+                "  }                                                       \n" +
+                "}                                                         \n" +
+                "fragment RoomFields on Room { name, facilities { id } }   \n";
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput()
+                .query(query)
+                .context(HotelData.generate(2, 2, 2, 42))
+                .build();
+        ExecutionResult expected = regular.execute(executionInput);
+        ExecutionResult actual = getterSubtrees.execute(executionInput);
+        assertEquals(Collections.emptyList(), actual.getErrors());
+        assertEquals(expected.getData().toString(), actual.getData().toString());
+    }
+
+    @Test
+    public void instrumentGetterSubtreesTheRegularWay() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            typeDefinitionRegistry = new SchemaParser().parse(reader);
+        }
+        ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(typeDefinitionRegistry, "hotel");
+        RuntimeWiring runtimeWiring = newRuntimeWiring().wiringFactory(wiringFactory).build();
+        GraphQLSchema graphQLSchema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+
+        List<String> regularFetches = new ArrayList<>();
+        List<String> getterSubtreeFetches = new ArrayList<>();
+        GraphQL regular = GraphQL.newGraphQL(graphQLSchema)
+                .instrumentation(new FieldFetchRecorder(regularFetches))
+                .build();
+        GraphQL getterSubtrees = GraphQL.newGraphQL(graphQLSchema)
+                .queryExecutionStrategy(new GetterSubtreeExecutionStrategy(wiringFactory))
+                .instrumentation(new FieldFetchRecorder(getterSubtreeFetches))
+                .build();
+
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput()
+                .query("{ hotels(ids: [1, 2]) { id, name, rooms { id, facilities { name } } } }")
+                .context(HotelData.generate(2, 2, 2, 42))
+                .build();
+        ExecutionResult expected = regular.execute(executionInput);
+        ExecutionResult actual = getterSubtrees.execute(executionInput);
+        assertEquals(expected.getData().toString(), actual.getData().toString());
+        assertEquals(regularFetches.size(), getterSubtreeFetches.size());
+        assertTrue(getterSubtreeFetches.contains("Facility.name"));
+    }
+
+    private static class FieldFetchRecorder extends NoOpInstrumentation {
+        private final List<String> fetches;
+
+        FieldFetchRecorder(List<String> fetches) {
+            this.fetches = Collections.synchronizedList(fetches);
+        }
+
+        @Override
+        public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters) {
+            fetches.add(parameters.getEnvironment().getParentType().getName() + "."
+                    + parameters.getField().getName());
+            return super.beginFieldFetch(parameters);
+        }
+    }
+
+    @Test
+    public void recordResolverInvocationEvents() throws Exception {
+        Path recordingFile = Files.createTempFile("resolvers", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("graphql.reflection.ResolverInvocation").withThreshold(Duration.ZERO);
+            recording.enable("graphql.reflection.WiringPhase");
+            recording.start();
+            executeQuery(
+                    Arrays.asList(EnumTestQuery.class, TestEnum.class), "" +
+                            "    schema {                                             \n" +
+                            "        query: EnumTestQuery                             \n" +
+                            "    }                                                    \n" +
+                            "                                                         \n" +
+                            "    enum TestEnum {                                      \n" +
+                            "        ONE                                              \n" +
+                            "        TWO                                              \n" +
+                            "        THREE                                            \n" +
+                            "    }                                                    \n" +
+                            "                                                         \n" +
+                            "    type EnumTestQuery {                                 \n" +
+                            "        field1(arg: TestEnum): String                    \n" +
+                            "        field2: TestEnum                                 \n" +
+                            "    }                                                    \n",
+                    "{ field1(arg: TWO), field2 }");
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        Files.delete(recordingFile);
+
+        Set<String> resolvers = new TreeSet<>();
+        Set<String> phases = new TreeSet<>();
+        for (RecordedEvent event : events) {
+            String eventName = event.getEventType().getName();
+            if (eventName.equals("graphql.reflection.ResolverInvocation")) {
+                assertEquals("SUCCESS", event.getString("outcome"));
+                resolvers.add(String.format("%s.%s=%s", event.getString("typeName"),
+                        event.getString("fieldName"), event.getString("method")));
+            } else if (eventName.equals("graphql.reflection.WiringPhase")) {
+                phases.add(event.getString("phase"));
+            }
+        }
+        assertEquals(
+                "[EnumTestQuery.field1=testresolvers.EnumTestQuery.fetchField1, " +
+                        "EnumTestQuery.field2=testresolvers.EnumTestQuery.getField2]",
+                resolvers.toString());
+        assertEquals("[compileGetters, encodeNames, registerTypes, verifyClasses, verifyQueries]", phases.toString());
+    }
+
+    @Test
+    public void recordAsynchronousResolverInvocations() throws Exception {
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(new SchemaParser().parse("" +
+                        "    schema {                                             \n" +
+                        "        query: DeadlineTestQuery                         \n" +
+                        "    }                                                    \n" +
+                        "                                                         \n" +
+                        "    type DeadlineTestQuery {                             \n" +
+                        "        slow: String                                     \n" +
+                        "        fast: String                                     \n" +
+                        "        hasDeadline: Boolean                             \n" +
+                        "    }                                                    \n"),
+                Collections.singletonList(DeadlineTestQuery.class)).build();
+        graphQL.getWiringFactory().setTimeout("DeadlineTestQuery", "slow", null);
+
+        Path recordingFile = Files.createTempFile("resolvers", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("graphql.reflection.ResolverInvocation").withThreshold(Duration.ZERO);
+            recording.start();
+            CompletableFuture<String> slow = new CompletableFuture<>();
+            CompletableFuture<ExecutionResult> result = graphQL.executeAsync(ExecutionInput.newExecutionInput()
+                    .query("{ slow }")
+                    .context(slow)
+                    .build());
+            Thread.sleep(50);
+            slow.completeExceptionally(new NoSuchElementException("gone"));
+            assertEquals(1, result.get(10, TimeUnit.SECONDS).getErrors().size());
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        Files.delete(recordingFile);
+
+        assertEquals(1, events.size());
+        assertEquals("slow", events.get(0).getString("fieldName"));
+        assertEquals("FAILURE", events.get(0).getString("outcome"));
+        assertEquals("java.util.NoSuchElementException", events.get(0).getString("exception"));
+        assertTrue(events.get(0).getDuration().toString(),
+                events.get(0).getDuration().compareTo(Duration.ofMillis(50)) >= 0);
+    }
+
+    @Test
+    public void resolverErrors() throws Exception {
+        SchemaParser schemaParser = new SchemaParser();
+        TypeDefinitionRegistry typeDefinitionRegistry = schemaParser.parse("" +
+                "    schema {                                             \n" +
+                "        query: ErrorTestQuery                            \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type ErrorTestQuery {                                \n" +
+                "        missing(id: Int): String                         \n" +
+                "        late(id: Int): String                            \n" +
+                "        broken: String                                   \n" +
+                "        working: String                                  \n" +
+                "    }                                                    \n");
+        ReflectionWiringFactory wiringFactory = new ReflectionWiringFactory(typeDefinitionRegistry,
+                Collections.singletonList(ErrorTestQuery.class));
+        RuntimeWiring runtimeWiring = newRuntimeWiring().wiringFactory(wiringFactory).build();
+        GraphQLSchema graphQLSchema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+        GraphQL graphQL = GraphQL.newGraphQL(graphQLSchema)
+                .queryExecutionStrategy(new AsyncExecutionStrategy(new ResolverExceptionHandler()))
+                .build();
+
+        ExecutionResult result = graphQL.execute("{ missing(id: 7), late(id: 8), broken, working }");
+        assertEquals("{missing=null, late=null, broken=null, working=ok}", result.getData().toString());
+        assertEquals(
+                "[ResolverError{path=[missing], classification=NOT_FOUND, message=No item 7}, " +
+                        "ResolverError{path=[late], classification=NOT_FOUND, message=No late item 8}, " +
+                        "ResolverError{path=[broken], classification=INTERNAL, message=Backend unavailable}]",
+                result.getErrors().toString());
+        assertEquals("{ErrorTestQuery.broken=1, ErrorTestQuery.late=1, ErrorTestQuery.missing=1, " +
+                        "ErrorTestQuery.working=0}",
+                wiringFactory.getResolverErrorCounts().toString());
+
+        wiringFactory.setErrorClassifier(ResolverErrorClassifier.byType(
+                Collections.singletonMap(IllegalStateException.class, "UNAVAILABLE")));
+        result = graphQL.execute("{ broken }");
+        assertEquals(Collections.singletonMap("classification", "UNAVAILABLE"),
+                result.getErrors().get(0).getExtensions());
+        assertEquals("{ErrorTestQuery.broken=2, ErrorTestQuery.late=1, ErrorTestQuery.missing=1, " +
+                        "ErrorTestQuery.working=0}",
+                wiringFactory.getResolverErrorCounts().toString());
+        assertEquals("UNAVAILABLE", ResolverErrorClassifier.byType(
+                Collections.singletonMap(Throwable.class, "UNAVAILABLE")).classify(new IllegalStateException()));
+    }
+
+    @Test
+    public void shareClassMetadataAcrossFactories() throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            typeDefinitionRegistry = new SchemaParser().parse(reader);
+        }
+        ReflectionWiringFactory first = new ReflectionWiringFactory(typeDefinitionRegistry, "hotel");
+        ReflectionWiringFactory second = new ReflectionWiringFactory(typeDefinitionRegistry, "hotel");
+
+        assertSame(ResolverClassInfo.of(hotel.Hotel.class), ResolverClassInfo.of(hotel.Hotel.class));
+        for (String typeName : Arrays.asList("Hotel", "Room", "Facility")) {
+            Map<String, ?> firstAccessors = first.getGetterAccessors(typeName);
+            Map<String, ?> secondAccessors = second.getGetterAccessors(typeName);
+            for (String fieldName : firstAccessors.keySet()) {
+                assertSame(firstAccessors.get(fieldName), secondAccessors.get(fieldName));
+            }
+        }
+    }
+
+    @Test
+    public void wireLazily() throws Exception {
+        String schema;
+        try (Scanner scanner = new Scanner(getClass().getResourceAsStream("schema.graphqls"), "UTF-8")) {
+            schema = scanner.useDelimiter("\\A").next();
+        }
+        String orphan = schema + "type Orphan {\n    name: String\n}\n";
+        TypeDefinitionRegistry registry = new SchemaParser().parse(orphan);
+
+        assertEquals(Collections.singletonList("Class for type 'Orphan' was not found"),
+                new ReflectionWiringFactory(registry, "hotel").getErrors());
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(registry, "hotel")
+                .wiringMode(ReflectionWiringFactory.Mode.LAZY)
+                .build();
+        assertEquals(Collections.emptyList(), graphQL.getWiringFactory().getErrors());
+        assertEquals("{hotel={name=MyHotel1, rooms=[{facilities=[{id=100101}]}]}}", graphQL.execute(
+                ExecutionInput.newExecutionInput()
+                        .query("{ hotel(id: 1) { name, rooms { facilities { id } } } }")
+                        .context(HotelData.generate(1, 1, 1, 42))
+                        .build()).getData().toString());
+
+        String missingGetter = schema.replace("type Room {", "type Room {\n    price: Int");
+        TypeDefinitionRegistry brokenRegistry = new SchemaParser().parse(missingGetter);
+        ReflectionWiringFactory lazy = new ReflectionWiringFactory(brokenRegistry, "hotel",
+                ReflectionWiringFactory.Mode.LAZY);
+        assertEquals(Collections.emptyList(), lazy.getErrors());
+        new SchemaGenerator().makeExecutableSchema(brokenRegistry, newRuntimeWiring().wiringFactory(lazy).build());
+        assertEquals(Collections.singletonList("Unable to find resolver for field 'price' of type 'Room'"),
+                lazy.getErrors());
+    }
+
+    @Test
+    public void wireInParallel() throws Exception {
+        TypeDefinitionRegistry registry = new SchemaParser().parse("" +
+                "    schema {                                             \n" +
+                "        query: ArgsMismatchTest                          \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type ArgsMismatchTest {                              \n" +
+                "        missingArg(a: Int, b: String, c: Boolean): Int   \n" +
+                "        extraArg(a: Int): Int                            \n" +
+                "        wrongArgs(a: String, b: String): Int             \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type BadArgOrderTest {                               \n" +
+                "        field: String                                    \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type MissingFieldTest {                              \n" +
+                "        hello: String                                    \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type NonExistentClass {                              \n" +
+                "        hello: String                                    \n" +
+                "    }");
+        List<String> expected = new ReflectionWiringFactory(registry, "testresolvers").getErrors();
+        assertEquals(10, expected.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected, new ReflectionWiringFactory(registry, "testresolvers",
+                    ReflectionWiringFactory.Mode.PARALLEL).getErrors());
+        }
+
+        TypeDefinitionRegistry hotelRegistry;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            hotelRegistry = new SchemaParser().parse(reader);
+        }
+        ReflectionGraphQL graphQL = ReflectionGraphQL.newReflectionGraphQL(hotelRegistry, "hotel")
+                .wiringMode(ReflectionWiringFactory.Mode.PARALLEL)
+                .build();
+        assertEquals("[Facility, Hotel, Room]",
+                new TreeSet<>(graphQL.getWiringFactory().getGetterOnlyTypes()).toString());
+    }
+}
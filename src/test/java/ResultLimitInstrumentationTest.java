@@ -0,0 +1,118 @@
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import hotel.HotelData;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.Test;
+import testresolvers.LimitTestQuery;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ResultLimitInstrumentationTest {
+    private static final String HOTEL_QUERY = "{ hotel(id: 1) { rooms { facilities { name } } } }";
+
+    private final HotelData hotelData = HotelData.generate(3, 4, 1, 42);
+
+    private ReflectionGraphQL hotelGraphQL(long maximumNodes, int maximumListLength, long maximumBytes)
+            throws Exception {
+        TypeDefinitionRegistry typeDefinitionRegistry;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("schema.graphqls"), StandardCharsets.UTF_8)) {
+            typeDefinitionRegistry = new SchemaParser().parse(reader);
+        }
+        return ReflectionGraphQL.newReflectionGraphQL(typeDefinitionRegistry, "hotel")
+                .resultLimits(maximumNodes, maximumListLength, maximumBytes)
+                .build();
+    }
+
+    private ExecutionResult execute(ReflectionGraphQL graphQL, String query) {
+        return graphQL.execute(ExecutionInput.newExecutionInput().query(query).context(hotelData).build());
+    }
+
+    @Test
+    public void executeWithinLimits() throws Exception {
+        // the hotel, the rooms list and its 4 rooms, 4 facility lists with one facility each, and 4 names
+        ExecutionResult result = execute(hotelGraphQL(18, 4, 100_000), HOTEL_QUERY);
+
+        assertEquals(Collections.emptyList(), result.getErrors());
+        assertNotNull(result.getData());
+    }
+
+    @Test
+    public void abortOnLimits() throws Exception {
+        ExecutionResult tooManyNodes = execute(hotelGraphQL(17, 4, 100_000), HOTEL_QUERY);
+        assertNull(tooManyNodes.getData());
+        assertEquals("Result exceeded the maximum of 17 nodes", tooManyNodes.getErrors().get(0).getMessage());
+        assertEquals(1, tooManyNodes.getErrors().size());
+
+        ExecutionResult tooLong = execute(hotelGraphQL(1000, 3, 100_000), HOTEL_QUERY);
+        assertEquals("Field '/hotel/rooms' returned 4 items, more than the maximum of 3",
+                tooLong.getErrors().get(0).getMessage());
+
+        ExecutionResult tooLarge = execute(hotelGraphQL(1000, 4, 400), HOTEL_QUERY);
+        assertEquals("Result exceeded the budget of 400 bytes", tooLarge.getErrors().get(0).getMessage());
+    }
+
+    private ReflectionGraphQL limitGraphQL() {
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse("" +
+                "    schema {                                             \n" +
+                "        query: LimitTestQuery                            \n" +
+                "    }                                                    \n" +
+                "                                                         \n" +
+                "    type LimitTestQuery {                                \n" +
+                "        pending: String                                  \n" +
+                "        loaded(id: Int): String                          \n" +
+                "        numbers(count: Int): [Int]                       \n" +
+                "    }                                                    \n");
+        return ReflectionGraphQL.newReflectionGraphQL(typeDefinitionRegistry,
+                Collections.singletonList(LimitTestQuery.class))
+                .resultLimits(1000, 3, 100_000)
+                .build();
+    }
+
+    @Test
+    public void abandonOutstandingFetches() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        ExecutionResult result = limitGraphQL().executeAsync(ExecutionInput.newExecutionInput()
+                .query("{ pending, numbers(count: 5) }")
+                .context(pending)
+                .build()).get(10, TimeUnit.SECONDS);
+
+        assertFalse(pending.isDone());
+        assertEquals("Field '/numbers' returned 5 items, more than the maximum of 3",
+                result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    public void keepLoadsSharedWithOtherOperations() throws Exception {
+        DataLoaderRegistry registry = new DataLoaderRegistry().register("names", DataLoader.newDataLoader(
+                (List<Integer> ids) -> CompletableFuture.completedFuture(
+                        ids.stream().map(id -> "Name #" + id).collect(Collectors.toList()))));
+
+        List<ExecutionResult> results = limitGraphQL().executeBatch(Arrays.asList(
+                ExecutionInput.newExecutionInput().query("{ loaded(id: 1), numbers(count: 5) }")
+                        .context(registry).build(),
+                ExecutionInput.newExecutionInput().query("{ loaded(id: 1) }")
+                        .context(registry).build()), registry);
+
+        assertEquals("Field '/numbers' returned 5 items, more than the maximum of 3",
+                results.get(0).getErrors().get(0).getMessage());
+        assertEquals(Collections.emptyList(), results.get(1).getErrors());
+        assertEquals("{loaded=Name #1}", results.get(1).getData().toString());
+        CompletableFuture<String> cached = registry.<Integer, String>getDataLoader("names").load(1);
+        assertFalse(cached.isCancelled());
+        assertEquals("Name #1", cached.join());
+    }
+}
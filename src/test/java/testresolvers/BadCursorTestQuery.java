@@ -0,0 +1,10 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import resolver.Cursor;
+
+public class BadCursorTestQuery {
+    public static Cursor<CursorRoom> fetchRooms(DataFetchingEnvironment env) {
+        return null;
+    }
+}
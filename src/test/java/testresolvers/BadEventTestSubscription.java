@@ -0,0 +1,9 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+public class BadEventTestSubscription {
+    public EventTestValue fetchEvents(DataFetchingEnvironment env) {
+        return new EventTestValue(1);
+    }
+}
@@ -0,0 +1,20 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.List;
+
+public class BadMutationTestMutation {
+    public List<MutationTestRoom> batchUpdateRoom(List<DataFetchingEnvironment> envs,
+                                                  List<Integer> ids, List<String> names) {
+        return null;
+    }
+
+    public static List<MutationTestRoom> batchBookRoom(DataFetchingEnvironment env, List<Integer> ids) {
+        return null;
+    }
+
+    public static MutationTestRoom fetchRenameRoom(DataFetchingEnvironment env, Integer id, String name) {
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import resolver.ConcurrencyLimit;
+
+import java.util.concurrent.CompletableFuture;
+
+public class BulkheadTestQuery {
+    @ConcurrencyLimit(1)
+    public CompletableFuture<String> fetchInventory(DataFetchingEnvironment env) {
+        return env.getContext();
+    }
+
+    public String fetchHealthy(DataFetchingEnvironment env) {
+        return "healthy";
+    }
+}
@@ -0,0 +1,18 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import resolver.Cost;
+
+import java.util.List;
+
+public class CostTestQuery {
+    @Cost(multipliers = "name")
+    public String fetchByName(DataFetchingEnvironment env, String name) {
+        return name;
+    }
+
+    @Cost(multipliers = {"ids", "limit"})
+    public List<String> fetchByIds(DataFetchingEnvironment env, List<Integer> ids, Integer limit) {
+        return null;
+    }
+}
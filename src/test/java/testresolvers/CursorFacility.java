@@ -0,0 +1,25 @@
+package testresolvers;
+
+public class CursorFacility {
+    private final int[] ids;
+    private final String[] names;
+    private int row;
+
+    public CursorFacility(int[] ids, String[] names) {
+        this.ids = ids;
+        this.names = names;
+    }
+
+    public CursorFacility at(int row) {
+        this.row = row;
+        return this;
+    }
+
+    public int getId() {
+        return ids[row];
+    }
+
+    public String getName() {
+        return names[row];
+    }
+}
@@ -0,0 +1,9 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+public class CursorRoom {
+    public String fetchName(DataFetchingEnvironment env) {
+        return "Room";
+    }
+}
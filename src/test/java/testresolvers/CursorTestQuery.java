@@ -0,0 +1,23 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import resolver.Cursor;
+
+public class CursorTestQuery {
+    public static Cursor<CursorFacility> fetchFacilities(DataFetchingEnvironment env) {
+        int[] ids = {1, 2, 3};
+        String[] names = {"Pool", "Gym", "Spa"};
+        CursorFacility facility = new CursorFacility(ids, names);
+        return new Cursor<CursorFacility>() {
+            @Override
+            public int size() {
+                return ids.length;
+            }
+
+            @Override
+            public CursorFacility moveTo(int row) {
+                return facility.at(row);
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import resolver.BatchWindow;
+import resolver.Deadline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DeadlineTestMutation {
+    @BatchWindow(value = 200, maximumSize = 100)
+    public static List<MutationTestRoom> batchBookRoom(List<DataFetchingEnvironment> envs, List<Integer> ids) {
+        return write(envs, ids);
+    }
+
+    public static List<MutationTestRoom> batchRenameRoom(List<DataFetchingEnvironment> envs, List<Integer> ids) {
+        return write(envs, ids);
+    }
+
+    private static List<MutationTestRoom> write(List<DataFetchingEnvironment> envs, List<Integer> ids) {
+        List<List<Integer>> writes = envs.get(0).getContext();
+        writes.add(ids);
+        List<MutationTestRoom> rooms = new ArrayList<>();
+        for (Integer id : ids) {
+            rooms.add(new MutationTestRoom(id, Deadline.current().isNone() ? "No deadline" : "Deadline"));
+        }
+        return rooms;
+    }
+}
@@ -0,0 +1,22 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import resolver.Deadline;
+import resolver.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+
+public class DeadlineTestQuery {
+    @Timeout(50)
+    public CompletableFuture<String> fetchSlow(DataFetchingEnvironment env) {
+        return env.getContext();
+    }
+
+    public String fetchFast(DataFetchingEnvironment env) {
+        return "fast";
+    }
+
+    public Boolean fetchHasDeadline(DataFetchingEnvironment env) {
+        return !Deadline.current().isNone();
+    }
+}
@@ -0,0 +1,26 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+public class ErrorTestQuery {
+    public static String fetchMissing(DataFetchingEnvironment env, Integer id) {
+        throw new NoSuchElementException("No item " + id);
+    }
+
+    public static CompletableFuture<String> fetchLate(DataFetchingEnvironment env, Integer id) {
+        CompletableFuture<String> late = new CompletableFuture<>();
+        late.completeExceptionally(new NoSuchElementException("No late item " + id));
+        return late;
+    }
+
+    public String getBroken() {
+        throw new IllegalStateException("Backend unavailable");
+    }
+
+    public String getWorking() {
+        return "ok";
+    }
+}
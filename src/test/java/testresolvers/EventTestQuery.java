@@ -0,0 +1,9 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+public class EventTestQuery {
+    public static String fetchName(DataFetchingEnvironment env) {
+        return "events";
+    }
+}
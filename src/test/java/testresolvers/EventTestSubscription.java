@@ -0,0 +1,10 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import org.reactivestreams.Publisher;
+
+public class EventTestSubscription {
+    public Publisher<EventTestValue> fetchEvents(DataFetchingEnvironment env) {
+        return env.getContext();
+    }
+}
@@ -0,0 +1,29 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+
+public class EventTestValue {
+    private final int value;
+
+    public EventTestValue(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public CompletableFuture<Integer> fetchDoubled(DataFetchingEnvironment env) {
+        // earlier events take longer to resolve
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep((5 - value) * 10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value * 2;
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class IncrementalTestHotel {
+    private final int id;
+    private final String name;
+
+    public IncrementalTestHotel(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getRooms() {
+        return Arrays.asList("Single", "Double", "Suite");
+    }
+
+    public CompletableFuture<List<String>> fetchFacilities(DataFetchingEnvironment env) {
+        // completed by the test once it has seen the initial result
+        return env.getContext();
+    }
+}
@@ -0,0 +1,9 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+public class IncrementalTestQuery {
+    public static IncrementalTestHotel fetchHotel(DataFetchingEnvironment env) {
+        return new IncrementalTestHotel(1, "Grand");
+    }
+}
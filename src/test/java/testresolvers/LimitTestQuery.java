@@ -0,0 +1,27 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoaderRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class LimitTestQuery {
+    public CompletableFuture<String> fetchPending(DataFetchingEnvironment env) {
+        return env.getContext();
+    }
+
+    public CompletableFuture<String> fetchLoaded(DataFetchingEnvironment env, Integer id) {
+        DataLoaderRegistry registry = env.getContext();
+        return registry.<Integer, String>getDataLoader("names").load(id);
+    }
+
+    public List<Integer> fetchNumbers(DataFetchingEnvironment env, Integer count) {
+        List<Integer> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(i);
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,27 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoaderRegistry;
+
+import java.util.concurrent.CompletableFuture;
+
+public class LoaderItem {
+    private final int id;
+
+    public LoaderItem(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return "Item #" + id;
+    }
+
+    public CompletableFuture<LoaderItem> fetchRelated(DataFetchingEnvironment env) {
+        DataLoaderRegistry registry = env.getContext();
+        return registry.<Integer, LoaderItem>getDataLoader("items").load(id * 10);
+    }
+}
@@ -0,0 +1,13 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoaderRegistry;
+
+import java.util.concurrent.CompletableFuture;
+
+public class LoaderTestQuery {
+    public CompletableFuture<LoaderItem> fetchItem(DataFetchingEnvironment env, Integer id) {
+        DataLoaderRegistry registry = env.getContext();
+        return registry.<Integer, LoaderItem>getDataLoader("items").load(id);
+    }
+}
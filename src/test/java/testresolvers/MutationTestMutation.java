@@ -0,0 +1,46 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+import resolver.BatchWindow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+public class MutationTestMutation {
+    public static List<MutationTestRoom> batchUpdateRoom(List<DataFetchingEnvironment> envs,
+                                                         List<Integer> ids, List<String> names) {
+        List<List<Integer>> writes = envs.get(0).getContext();
+        writes.add(ids);
+        List<MutationTestRoom> rooms = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rooms.add(new MutationTestRoom(ids.get(i), names.get(i)));
+        }
+        return rooms;
+    }
+
+    @BatchWindow(value = 10_000, maximumSize = 2)
+    public static CompletableFuture<List<MutationTestRoom>> batchBookRoom(List<DataFetchingEnvironment> envs,
+                                                                          List<Integer> ids) {
+        List<List<Integer>> writes = envs.get(0).getContext();
+        writes.add(ids);
+        if (ids.contains(0)) {
+            return CompletableFuture.supplyAsync(() -> {
+                throw new NoSuchElementException("No room 0");
+            });
+        }
+        List<MutationTestRoom> rooms = new ArrayList<>();
+        for (Integer id : ids) {
+            rooms.add(new MutationTestRoom(id, "Booked"));
+        }
+        return CompletableFuture.completedFuture(rooms);
+    }
+
+    public MutationTestRoom fetchRenameRoom(DataFetchingEnvironment env, Integer id, String name) {
+        List<List<Integer>> writes = env.getContext();
+        writes.add(Collections.singletonList(id));
+        return new MutationTestRoom(id, name);
+    }
+}
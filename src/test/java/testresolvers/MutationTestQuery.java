@@ -0,0 +1,9 @@
+package testresolvers;
+
+import graphql.schema.DataFetchingEnvironment;
+
+public class MutationTestQuery {
+    public static String fetchName(DataFetchingEnvironment env) {
+        return "rooms";
+    }
+}
@@ -0,0 +1,19 @@
+package testresolvers;
+
+public class MutationTestRoom {
+    private final int id;
+    private final String name;
+
+    public MutationTestRoom(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,7 @@
+package testresolvers.reloaded;
+
+import testresolvers.TestUnion;
+
+public class TypeWithInt implements TestUnion {
+    public String getIntField() { return "42"; }
+}